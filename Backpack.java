@@ -1,9 +1,11 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Objects;
 
 public class Backpack {
 
@@ -35,69 +37,189 @@ public class Backpack {
         new Item("Telt", 2000, 150)
     }));
 
+    // An immutable snapshot of the items and the maximum weight, which all scoring goes through. Made again when either changes.
+    private static volatile KnapsackProblem problem;
+    // The index of an item with each name, kept up to date as items are added and removed. Made again when all items are replaced.
+    private static Map<String, Integer> itemIndex;
+    // The number of items whose name is already in the index under another item.
+    private static int duplicateNames;
+
+    /**
+     * Changes made to an item after it has been added are not seen by the problem.
+     * @return the current items and maximum weight as an immutable problem, which can be kept and used by other threads.
+     */
+    public static KnapsackProblem getProblem() {
+        KnapsackProblem current = problem;
+        if(current == null)
+            problem = current = new KnapsackProblem(items, maxWeight);
+        return current;
+    }
+
     public static int getItemSize(List<Boolean> list) {
         return list.stream().reduce(0, (a, b) -> a + (b ? 1 : 0), (a, b) -> a + b);
     }
 
+    public static int getItemSize(BitGenome genome) {
+        return genome.cardinality();
+    }
+
     public static int getItemSizeFull() {
         return items.size();
     }
     
     public static String toString(List<Boolean> list) {
-        return list.stream()
-                   .map(a -> a ? 1 : 0)
-                   .collect(Collectors.toList())
-                   .toString() +
-                " has a price of " + getPrice(list) +
-                ", weighs " + getWeight(list) +
-                " and contains " + getNames(list) + ".";
+        return getProblem().toString(list);
+    }
+
+    public static String toString(BitGenome genome) {
+        return getProblem().toString(genome);
+    }
+
+    public static String getNames(BitGenome genome) {
+        return getProblem().getNames(genome);
     }
 
     public static String getNames(List<Boolean> list) {
-        return IntStream.range(0, getItemSizeFull())
-                        .filter(i -> list.get(i))
-                        .mapToObj(i -> items.get(i).getName())
-                        .reduce("", (a, b) -> a + "[" + b + "]", (a, b) -> a + b);
+        return getProblem().getNames(list);
     }
 
     public static String getNamesFull() {
-        return items.stream()
-                    .map(i -> i.getName())
-                    .reduce("", (a, b) -> a + "[" + b + "]", (a, b) -> a + b);
+        StringBuilder builder = new StringBuilder();
+        for(Item item : items)
+            builder.append('[').append(item.getName()).append(']');
+        return builder.toString();
     }
 
     public static int getWeight(List<Boolean> list) {
-        return IntStream.range(0, getItemSizeFull())
-                        .filter(i -> list.get(i))
-                        .mapToObj(i -> items.get(i))
-                        .reduce(0, (a, b) -> a + b.getWeight(), (a, b) -> a + b);
+        return getProblem().getWeight(list);
     }
 
     public static int getPrice(List<Boolean> list) {
-        return IntStream.range(0, getItemSizeFull())
-                        .filter(i -> list.get(i))
-                        .mapToObj(i -> items.get(i))
-                        .reduce(0, (a, b) -> a + b.getPrice(), (a, b) -> a + b);
+        return getProblem().getPrice(list);
     }
 
     public static int getPriceIfAllowed(List<Boolean> list) {
-        return Backpack.getWeight(list) > maxWeight ? 0 : Backpack.getPrice(list);}
+        return getProblem().getPriceIfAllowed(list);
+    }
+
+    public static int getWeight(BitGenome genome) {
+        return getProblem().getWeight(genome);
+    }
+
+    public static int getPrice(BitGenome genome) {
+        return getProblem().getPrice(genome);
+    }
+
+    public static int getPriceIfAllowed(BitGenome genome) {
+        return getProblem().getPriceIfAllowed(genome);
+    }
+
+    public static int[] scoreGeneration(List<List<Boolean>> generation) {
+        return getProblem().scoreGeneration(generation);
+    }
+
+    public static int[] scoreBitGeneration(List<BitGenome> generation) {
+        return getProblem().scoreBitGeneration(generation);
+    }
+
+    /**
+     * Solves the problem exactly instead of with the genetic algorithm, which is fast for few items or a small maximum weight.
+     * @return the packing of the items with the highest price that is allowed.
+     */
+    public static List<Boolean> getOptimalPacking() {
+        return getProblem().getOptimalPacking().toList();
+    }
 
+    /**
+     * @param item the item to add, whose weight cannot be less than 0.
+     */
     public static void addItem(Item item) {
+        Item.checkWeight(item.getWeight());
         items.add(item);
+        problem = null;
+        if(itemIndex != null && itemIndex.putIfAbsent(item.getName(), items.size() - 1) != null)
+            duplicateNames++;
+    }
+
+    /**
+     * Replaces all the items with those of the catalog.
+     * @param catalog the items to choose between from now on.
+     */
+    public static void setItems(ItemCatalog catalog) {
+        items.clear();
+        items.addAll(catalog.toItems());
+        problem = catalog.toProblem(maxWeight);
+        itemIndex = null;
+    }
+
+    /**
+     * Replaces all the items with those of a CSV or binary catalog file.
+     * @param path the catalog file, as described in {@link ItemCatalog}.
+     * @throws IOException if the file could not be read or is not a catalog.
+     */
+    public static void loadItems(Path path) throws IOException {
+        setItems(ItemCatalog.load(path));
+    }
+
+    /**
+     * Changes made to the name of an item after it has been added are not seen by the index.
+     * @param name the name of an item.
+     * @return the index of an item with that name, or -1 if there is none.
+     */
+    public static int indexOf(String name) {
+        Integer i = getItemIndex().get(name);
+        return i == null ? -1 : i;
+    }
+
+    private static Map<String, Integer> getItemIndex() {
+        Map<String, Integer> index = itemIndex;
+        if(index == null) {
+            index = new HashMap<String, Integer>(items.size() * 4 / 3 + 1);
+            duplicateNames = 0;
+            for(int i = 0; i < items.size(); i++)
+                if(index.putIfAbsent(items.get(i).getName(), i) != null)
+                    duplicateNames++;
+            itemIndex = index;
+        }
+        return index;
     }
 
     public static void removeItem(String name) {
-        Optional<Item> item = items.stream().filter(i -> i.getName().equals(name)).findFirst();
-        if(item.isPresent())
-            items.remove(item.get());
+        int index = indexOf(name);
+        if(index >= 0)
+            removeItem(index);
         else
             throw new IllegalArgumentException("Item with that name doesn't exist");
     }
 
+    /**
+     * The last item takes the place of the removed one, so no other items move and the name index is kept instead of made again.
+     * @param index the index of the item to remove.
+     */
     public static void removeItem(int index) {
-        if(index >= 0 && index < getItemSizeFull())
-            items.remove(index);
+        if(index >= 0 && index < getItemSizeFull()) {
+            Map<String, Integer> names = getItemIndex();
+            int last = items.size() - 1;
+            Item removed = items.get(index), moved = items.remove(last);
+            problem = null;
+            if(index != last) {
+                items.set(index, moved);
+                if(Objects.equals(names.get(moved.getName()), last))
+                    names.put(moved.getName(), index);
+            }
+            if(Objects.equals(names.get(removed.getName()), index)) {
+                names.remove(removed.getName());
+                if(duplicateNames > 0) //Only then can another item have the same name, and only then are the items searched.
+                    for(int i = 0; i < items.size(); i++)
+                        if(items.get(i).getName().equals(removed.getName())) {
+                            names.put(removed.getName(), i);
+                            duplicateNames--;
+                            break;
+                        }
+            }
+            else if(names.containsKey(removed.getName()))
+                duplicateNames--;
+        }
         else
             throw new IllegalArgumentException("Index out of bounds. Index was " + index + ".");
     }
@@ -108,6 +230,7 @@ public class Backpack {
 
     public static void setMaxWeight(int maxWeight) {
         Backpack.maxWeight = maxWeight;
+        problem = null;
     }
 
     public static class Item {
@@ -116,9 +239,14 @@ public class Backpack {
         private int weight;
         private int price;
 
+        /**
+         * @param name the name of the item.
+         * @param weight the weight of the item, which cannot be less than 0.
+         * @param price the price of the item.
+         */
         public Item(String name, int weight, int price) {
             this.name = name;
-            this.weight = weight;
+            this.weight = checkWeight(weight);
             this.price = price;
         }
 
@@ -127,9 +255,15 @@ public class Backpack {
         public int getPrice() {return price;}
 
         public void setName(String name) {this.name = name;}
-        public void setWeight(int weight) {this.weight = weight;}
+        public void setWeight(int weight) {this.weight = checkWeight(weight);}
         public void setPrice(int price) {this.price = price;}
 
+        private static int checkWeight(int weight) {
+            if(weight < 0)
+                throw new IllegalArgumentException("weight was " + weight + " but cannot be less than 0.");
+            return weight;
+        }
+
         public String toString() {
             return "[" + name + "," + weight + "," + price + "]";
         }
@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the algorithm without a window for every combination of problems and parameters, a number of times each,
+ * with as many runs at the same time as there are threads, and writes a summary of the score, the time
+ * and the number of generations until the best child was found for every combination.
+ * <p>
+ * Every run gets its own seed from the seed of the batch, so a batch with a seed gives the same scores every time,
+ * no matter how many threads it runs on. The times are averaged like the {@link Tester} does, leaving out runs that took more than twice the average.
+ */
+public class BatchRunner {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: java Main [options]",
+        "  --problem FILE          an item catalog in CSV or binary, which can be given more than once (default: the built-in items)",
+        "  --max-weight LIST       the maximum weights to try (default: " + Backpack.getMaxWeight() + ")",
+        "  --generations LIST      the numbers of generations to try (default: 100)",
+        "  --generation-size LIST  the generation sizes to try (default: 100)",
+        "  --parents LIST          the numbers of parents to try (default: 10)",
+        "  --repair LIST           whether to repair overweight children, as true, false or both (default: false)",
+        "  --stagnation N          stop a run after N generations without a better child (default: never)",
+        "  --repetitions N         the number of runs of every combination (default: 5)",
+        "  --threads N             the number of runs at the same time (default: the number of cores)",
+        "  --seed N                the seed of the batch (default: random)",
+        "  --optimum               also solve every problem exactly to compare against",
+        "  --output FILE           the file to write the summary to, as JSON if it ends in .json and CSV otherwise (default: CSV to the console)",
+        "where a LIST is numbers or values separated by commas.");
+
+    private final List<Path> problemPaths = new ArrayList<Path>();
+    private int[] maxWeights = {Backpack.getMaxWeight()},
+                  generationAmounts = {100},
+                  generationSizes = {100},
+                  parentAmounts = {10};
+    private boolean[] repairs = {false};
+    private int stagnationWindow = 0;
+    private int repetitions = 5;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private RandomSource randomSource = new RandomSource();
+    private boolean solveOptimum = false;
+    private Path output;
+
+    /**
+     * Runs a batch from the command line, printing the usage if the arguments are wrong.
+     * @param args the command line arguments.
+     * @return the exit code, which is 0 if the batch ran, 1 if it failed and 2 if the arguments were wrong.
+     */
+    public static int run(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parse(args);
+        } catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        try {
+            List<Summary> summaries = runner.run();
+            if(runner.output == null)
+                writeCsv(summaries, System.out);
+            else if(runner.output.toString().endsWith(".json"))
+                writeJson(summaries, runner.output);
+            else
+                writeCsv(summaries, runner.output);
+            return 0;
+        } catch(IOException | ExecutionException e) {
+            System.err.println("The batch failed: " + e.getMessage());
+            return 1;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    /**
+     * @param args the options, as described in the usage.
+     */
+    void parse(String[] args) {
+        for(int a = 0; a < args.length; a++) {
+            String option = args[a];
+            if(option.equals("--optimum")) {
+                solveOptimum = true;
+                continue;
+            }
+            if(option.equals("--help"))
+                throw new IllegalArgumentException("Runs the genetic algorithm for every combination of the options.");
+            if(a + 1 >= args.length)
+                throw new IllegalArgumentException(option + " needs a value.");
+            String value = args[++a];
+            switch(option) {
+                case "--problem":         problemPaths.add(Paths.get(value)); break;
+                case "--max-weight":      maxWeights = parseInts(option, value, 0); break;
+                case "--generations":     generationAmounts = parseInts(option, value, 1); break;
+                case "--generation-size": generationSizes = parseInts(option, value, 1); break;
+                case "--parents":         parentAmounts = parseInts(option, value, 1); break;
+                case "--repair":          repairs = parseBooleans(option, value); break;
+                case "--stagnation":      stagnationWindow = parseInts(option, value, 1)[0]; break;
+                case "--repetitions":     repetitions = parseInts(option, value, 1)[0]; break;
+                case "--threads":         threads = parseInts(option, value, 1)[0]; break;
+                case "--seed":            randomSource = new RandomSource(parseLong(option, value)); break;
+                case "--output":          output = Paths.get(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + option + ".");
+            }
+        }
+    }
+
+    private static int[] parseInts(String option, String value, int min) {
+        try {
+            int[] values = Arrays.stream(value.split(",")).map(String::strip).mapToInt(Integer::parseInt).toArray();
+            for(int v : values)
+                if(v < min)
+                    throw new IllegalArgumentException(option + " was " + v + " but cannot be less than " + min + ".");
+            return values;
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException(option + " should be whole numbers separated by commas but was " + value + ".");
+        }
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException(option + " should be a whole number but was " + value + ".");
+        }
+    }
+
+    private static boolean[] parseBooleans(String option, String value) {
+        if(value.equals("both"))
+            return new boolean[]{false, true};
+        String[] parts = value.split(",");
+        boolean[] values = new boolean[parts.length];
+        for(int i = 0; i < parts.length; i++) {
+            if(!parts[i].strip().equals("true") && !parts[i].strip().equals("false"))
+                throw new IllegalArgumentException(option + " should be true, false or both but was " + value + ".");
+            values[i] = parts[i].strip().equals("true");
+        }
+        return values;
+    }
+
+    /**
+     * Runs every repetition of every combination, with the runs spread over the threads.
+     * @return a summary of every combination, in the order the options were given.
+     */
+    List<Summary> run() throws IOException, InterruptedException, ExecutionException {
+        List<String> problemNames = new ArrayList<String>();
+        List<KnapsackProblem> problems = new ArrayList<KnapsackProblem>();
+        if(problemPaths.isEmpty()) {
+            problemNames.add("built-in");
+            problems.add(Backpack.getProblem());
+        }
+        for(Path path : problemPaths) {
+            problemNames.add(path.getFileName().toString());
+            problems.add(ItemCatalog.load(path).toProblem(0));
+        }
+        List<Summary> summaries = new ArrayList<Summary>();
+        List<List<Future<RunResult<BitGenome>>>> futures = new ArrayList<List<Future<RunResult<BitGenome>>>>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for(int p = 0; p < problems.size(); p++) {
+                for(int maxWeight : maxWeights) {
+                    KnapsackProblem problem = problems.get(p).withMaxWeight(maxWeight);
+                    int optimum = solveOptimum ? problem.getPrice(problem.getOptimalPacking()) : -1;
+                    for(int generationAmount : generationAmounts)
+                        for(int generationSize : generationSizes)
+                            for(int parentAmount : parentAmounts)
+                                for(boolean repair : repairs) {
+                                    summaries.add(new Summary(problemNames.get(p), maxWeight, generationAmount, generationSize, parentAmount, repair, optimum));
+                                    List<Future<RunResult<BitGenome>>> runs = new ArrayList<Future<RunResult<BitGenome>>>();
+                                    for(int r = 0; r < repetitions; r++) {
+                                        long seed = randomSource.nextSeed(); //Drawn here, so every run gets the same seed however the runs are scheduled.
+                                        runs.add(executor.submit(() -> runOnce(problem, generationAmount, generationSize, parentAmount, repair, seed)));
+                                    }
+                                    futures.add(runs);
+                                }
+                }
+            }
+            for(int s = 0; s < summaries.size(); s++) {
+                for(Future<RunResult<BitGenome>> run : futures.get(s))
+                    summaries.get(s).add(run.get());
+                System.err.println("Finished " + (s + 1) + " of " + summaries.size() + ": " + summaries.get(s));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return summaries;
+    }
+
+    private RunResult<BitGenome> runOnce(KnapsackProblem problem, int generationAmount, int generationSize, int parentAmount, boolean repair, long seed) {
+        GeneticAlgorithm.Settings settings = new GeneticAlgorithm.Settings();
+        settings.setSeed(seed);
+        if(repair)
+            settings.setMutator(problem.repairing(settings.getMutator()));
+        Termination termination = new Termination();
+        termination.setStagnationWindow(stagnationWindow);
+        return BitGeneticAlgorithm.makeGenerations(generationAmount, generationSize, Math.min(parentAmount, generationSize), problem.getItemSize(),
+                                                   problem, termination, settings);
+    }
+
+    static void writeCsv(List<Summary> summaries, Path path) throws IOException {
+        try(PrintStream stream = new PrintStream(Files.newOutputStream(path), false, StandardCharsets.UTF_8)) {
+            writeCsv(summaries, stream);
+        }
+    }
+
+    static void writeCsv(List<Summary> summaries, PrintStream stream) {
+        stream.println("problem,maxWeight,generationAmount,generationSize,parentAmount,repair,runs,meanScore,bestScore,worstScore,optimum," +
+                       "meanTimeMs,meanGenerations,meanGenerationsToBest");
+        for(Summary summary : summaries) {
+            String name = summary.problem;
+            if(name.contains(",") || name.contains("\""))
+                name = "\"" + name.replace("\"", "\"\"") + "\"";
+            stream.println(name + "," + summary.maxWeight + "," + summary.generationAmount + "," + summary.generationSize + "," +
+                           summary.parentAmount + "," + summary.repair + "," + summary.getRunAmount() + "," + summary.getMeanScore() + "," +
+                           summary.getBestScore() + "," + summary.getWorstScore() + "," + (summary.optimum < 0 ? "" : summary.optimum) + "," +
+                           summary.getMeanTimeMs() + "," + summary.getMeanGenerations() + "," + summary.getMeanGenerationsToBest());
+        }
+        stream.flush();
+    }
+
+    static void writeJson(List<Summary> summaries, Path path) throws IOException {
+        try(Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for(int s = 0; s < summaries.size(); s++) {
+                Summary summary = summaries.get(s);
+                writer.write("  {\"problem\": \"" + summary.problem.replace("\\", "\\\\").replace("\"", "\\\"") + "\"" +
+                             ", \"maxWeight\": " + summary.maxWeight +
+                             ", \"generationAmount\": " + summary.generationAmount +
+                             ", \"generationSize\": " + summary.generationSize +
+                             ", \"parentAmount\": " + summary.parentAmount +
+                             ", \"repair\": " + summary.repair +
+                             ", \"runs\": " + summary.getRunAmount() +
+                             ", \"meanScore\": " + summary.getMeanScore() +
+                             ", \"bestScore\": " + summary.getBestScore() +
+                             ", \"worstScore\": " + summary.getWorstScore() +
+                             ", \"optimum\": " + (summary.optimum < 0 ? "null" : summary.optimum) +
+                             ", \"meanTimeMs\": " + summary.getMeanTimeMs() +
+                             ", \"meanGenerations\": " + summary.getMeanGenerations() +
+                             ", \"meanGenerationsToBest\": " + summary.getMeanGenerationsToBest() + "}" +
+                             (s < summaries.size() - 1 ? "," : "") + "\n");
+            }
+            writer.write("]\n");
+        }
+    }
+
+    /**
+     * The runs of one combination of a problem and parameters.
+     */
+    static class Summary {
+
+        private final String problem;
+        private final int maxWeight, generationAmount, generationSize, parentAmount;
+        private final boolean repair;
+        private final int optimum;
+        private final List<Integer> scores = new ArrayList<Integer>(),
+                                    generations = new ArrayList<Integer>(),
+                                    generationsToBest = new ArrayList<Integer>();
+        private final List<Double> timesMs = new ArrayList<Double>();
+
+        Summary(String problem, int maxWeight, int generationAmount, int generationSize, int parentAmount, boolean repair, int optimum) {
+            this.problem = problem;
+            this.maxWeight = maxWeight;
+            this.generationAmount = generationAmount;
+            this.generationSize = generationSize;
+            this.parentAmount = parentAmount;
+            this.repair = repair;
+            this.optimum = optimum;
+        }
+
+        /**
+         * @param result a run of the combination.
+         */
+        void add(RunResult<BitGenome> result) {
+            scores.add(result.getBestScore());
+            generations.add(result.getGenerationAmount());
+            int[] bestScores = result.getStatistics().getBestScores();
+            int first = 0;
+            while(bestScores[first] < result.getBestScore())
+                first++;
+            generationsToBest.add(first + 1); //The first generation is number 1.
+            timesMs.add(result.getTime() / 1000000d);
+        }
+
+        public int getRunAmount() {return scores.size();}
+        public double getMeanScore() {return Tester.round(scores.stream().mapToInt(i -> i).average().orElse(0), 1);}
+        public int getBestScore() {return scores.stream().mapToInt(i -> i).max().orElse(0);}
+        public int getWorstScore() {return scores.stream().mapToInt(i -> i).min().orElse(0);}
+        public double getMeanTimeMs() {return timesMs.isEmpty() ? 0 : Tester.round(Tester.getAverageTime(timesMs), 3);}
+        public double getMeanGenerations() {return Tester.round(generations.stream().mapToInt(i -> i).average().orElse(0), 1);}
+        public double getMeanGenerationsToBest() {return Tester.round(generationsToBest.stream().mapToInt(i -> i).average().orElse(0), 1);}
+
+        public String toString() {
+            return "[" + problem + "," + maxWeight + "," + generationAmount + "," + generationSize + "," + parentAmount + "," + repair + "," +
+                   getMeanScore() + "," + getBestScore() + "," + getMeanTimeMs() + "ms]";
+        }
+
+    }
+
+}
@@ -0,0 +1,538 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * The same algorithm as {@link GeneticAlgorithm}, but specialized for boolean genes packed into a {@link BitGenome},
+ * so that crossover and mutation work on whole 64-bit words instead of boxed genes.
+ */
+public class BitGeneticAlgorithm {
+
+    /**
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return the best child after a specified number of generations.
+     */
+    public static BitGenome       getBestChildAfterGenerations  (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer) {
+        return getBestChildAfterGenerations(generationAmount, generationSize, parentAmount, childSize, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best child after a specified number of generations.
+     */
+    public static BitGenome       getBestChildAfterGenerations  (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        return getBestChild(makeGenerations(generationAmount, generationSize, parentAmount, childSize, childScorer, settings), childScorer, settings);
+    }
+
+    /**
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return a new generation after a specified number of generations.
+     */
+    public static List<BitGenome> makeGenerations               (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer) {
+        return makeGenerations(generationAmount, generationSize, parentAmount, childSize, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return a new generation after a specified number of generations.
+     */
+    public static List<BitGenome> makeGenerations               (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        List<BitGenome> generation = makeGenerationFromRandom(generationSize, childSize, settings);
+        generation = makeGenerationsFromGeneration(generation, generationAmount - 1, generation.size(), parentAmount, childScorer, settings);
+        return generation;
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return a new generation from a previous generation after a specified number of generations.
+     */
+    public static List<BitGenome> makeGenerationsFromGeneration (List<BitGenome> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer) {
+        return makeGenerationsFromGeneration(generation, generationAmount, generationSize, parentAmount, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm, which can make the generations {@link GeneticAlgorithm.Settings#setInPlace in place}.
+     * @return a new generation from a previous generation after a specified number of generations.
+     */
+    public static List<BitGenome> makeGenerationsFromGeneration (List<BitGenome> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        List<BitGenome> spare = null;
+        for(int i = 0; i < generationAmount; i++) {
+            List<BitGenome> next = makeGenerationFromGeneration(generation, null, settings.isInPlace() ? spare : null, generationSize, parentAmount, childScorer, settings);
+            spare = generation;
+            generation = next;
+        }
+        return generation;
+    }
+
+    /**
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static RunResult<BitGenome> makeGenerations          (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer, Termination termination, GeneticAlgorithm.Settings settings) {
+        return makeGenerations(generationAmount, generationSize, parentAmount, childSize, childScorer, termination, null, settings);
+    }
+
+    /**
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param listener the listener to tell about every generation as it is scored, or null.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static RunResult<BitGenome> makeGenerations          (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                 ToIntFunction<BitGenome> childScorer, Termination termination,
+                                                                 GeneticAlgorithm.GenerationListener<? super BitGenome> listener, GeneticAlgorithm.Settings settings) {
+        long startTime = System.nanoTime();
+        List<BitGenome> generation = makeGenerationFromRandom(generationSize, childSize, settings);
+        return GeneticAlgorithm.makeGenerationsUntil(generation, 1, generationAmount, startTime, childScorer, BitGenome::new, BitGeneticAlgorithm::getDiversity,
+                                                     UnaryOperator.identity(),
+                                                     (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                                                childScorer, settings),
+                                                     termination, listener, settings);
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static RunResult<BitGenome> makeGenerationsFromGeneration(List<BitGenome> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer, Termination termination, GeneticAlgorithm.Settings settings) {
+        return makeGenerationsFromGeneration(generation, generationAmount, generationSize, parentAmount, childScorer, termination, null, settings);
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param listener the listener to tell about every generation as it is scored, starting with the one given, or null.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static RunResult<BitGenome> makeGenerationsFromGeneration(List<BitGenome> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer, Termination termination,
+                                                                 GeneticAlgorithm.GenerationListener<? super BitGenome> listener, GeneticAlgorithm.Settings settings) {
+        return GeneticAlgorithm.makeGenerationsUntil(generation, 0, generationAmount, System.nanoTime(), childScorer, BitGenome::new, BitGeneticAlgorithm::getDiversity,
+                                                     UnaryOperator.identity(),
+                                                     (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                                                childScorer, settings),
+                                                     termination, listener, settings);
+    }
+
+    /**
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return an iterator that makes a new generation every time it is asked for one, starting with a generation of random children.
+     */
+    public static GenerationIterator<BitGenome> iterateGenerations(int generationSize, int parentAmount, int childSize,
+                                                                   ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        return iterateGenerationsFrom(makeGenerationFromRandom(generationSize, childSize, settings), 1, generationSize, parentAmount, childScorer, settings);
+    }
+
+    /**
+     * @param generation the generation the iterator starts with, of which the next one is made.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return an iterator that makes a new generation every time it is asked for one, starting with the generation given.
+     */
+    public static GenerationIterator<BitGenome> iterateGenerationsFromGeneration(List<BitGenome> generation, int generationSize, int parentAmount,
+                                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        return iterateGenerationsFrom(generation, 0, generationSize, parentAmount, childScorer, settings);
+    }
+
+    private static GenerationIterator<BitGenome> iterateGenerationsFrom(List<BitGenome> generation, int generationNumber, int generationSize, int parentAmount,
+                                                                        ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        return new GenerationIterator<BitGenome>(generation, generationNumber, childScorer,
+                                                 (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                                            childScorer, settings),
+                                                 settings);
+    }
+
+    /**
+     * @param generationSize the number of children within the generation.
+     * @param childSize the number of genes within each child.
+     * @return a new generation of random children.
+     */
+    public static List<BitGenome> makeGenerationFromRandom      (int generationSize, int childSize) {
+        return makeGenerationFromRandom(generationSize, childSize, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generationSize the number of children within the generation.
+     * @param childSize the number of genes within each child.
+     * @param settings the settings of the algorithm, whose random source seeds the stream each child is made with.
+     * Its mutator {@link Mutator#prepare prepares} each child, which repairs it if the mutator is {@link Mutator.Repairing repairing}.
+     * @return a new generation of random children.
+     */
+    public static List<BitGenome> makeGenerationFromRandom      (int generationSize, int childSize, GeneticAlgorithm.Settings settings) {
+        if(generationSize < 1)
+            throw new IllegalArgumentException("generationSize was " + generationSize + " but cannot be less than 1.");
+        List<BitGenome> generation = new ArrayList<BitGenome>(Collections.nCopies(generationSize, null));
+        Mutator mutator = settings.getMutator();
+        GeneticAlgorithm.forEachIndex(generationSize, settings.getRandomSource().nextSeed(), i -> {
+            BitGenome child = makeChildFromRandom(childSize);
+            mutator.prepare(child);
+            generation.set(i, child);
+        }, settings);
+        return generation;
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationSize the number of children within the generation.
+     * @param parentAmount the amount of children used as parents for the new generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return a new generation made from the previous generation.
+     */
+    public static List<BitGenome> makeGenerationFromGeneration  (List<BitGenome> generation, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer) {
+        return makeGenerationFromGeneration(generation, generationSize, parentAmount, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generation the previous generation of which to make the new one.
+     * @param generationSize the number of children within the generation.
+     * @param parentAmount the amount of children used as parents for the new generation.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return a new generation made from the previous generation.
+     */
+    public static List<BitGenome> makeGenerationFromGeneration  (List<BitGenome> generation, int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        return makeGenerationFromGeneration(generation, null, null, generationSize, parentAmount, childScorer, settings);
+    }
+
+    /**
+     * @param scores the score of each child of the generation, or null to score them.
+     * @param buffer a generation whose children are written over with the new children, or null to make new children.
+     */
+    private static List<BitGenome> makeGenerationFromGeneration (List<BitGenome> generation, int[] scores, List<BitGenome> buffer,
+                                                                 int generationSize, int parentAmount,
+                                                                 ToIntFunction<BitGenome> childScorer, GeneticAlgorithm.Settings settings) {
+        Metrics metrics = settings.getMetrics();
+        long startTime = metrics == null ? 0 : System.nanoTime(),
+             startAllocated = metrics == null ? 0 : Metrics.getThreadAllocatedBytes(),
+             scoredTime = startTime;
+        long generationSeed = settings.getRandomSource().nextSeed();
+        List<BitGenome> parents;
+        RandomGenerator previous = RandomSource.setCurrent(RandomSource.forIndex(generationSeed, -1)); //The children use the indices from 0 and up.
+        try {
+            if(scores == null) {
+                scores = GeneticAlgorithm.getScores(generation, childScorer, settings);
+                scoredTime = metrics == null ? 0 : System.nanoTime();
+            }
+            parents = GeneticAlgorithm.selectParents(generation, scores, parentAmount, settings);
+        } finally {
+            RandomSource.setCurrent(previous);
+        }
+        long selectedTime = metrics == null ? 0 : System.nanoTime();
+        int eliteAmount = Math.min(settings.getSelector().getEliteAmount(), Math.min(parents.size(), generationSize));
+        List<BitGenome> newGeneration = makeGenerationFromParents(parents, eliteAmount, buffer, generationSize, settings, generationSeed);
+        if(metrics != null) {
+            long endTime = System.nanoTime();
+            metrics.recordGeneration(scoredTime - startTime, selectedTime - scoredTime, endTime - selectedTime, endTime - startTime,
+                                     startAllocated < 0 ? -1 : Metrics.getThreadAllocatedBytes() - startAllocated, generationSize);
+        }
+        return newGeneration;
+    }
+
+    /**
+     * @param parents the parents of which to make the generation.
+     * @param generationSize the number of children within the generation.
+     * @return a mutated generation made from the parents.
+     */
+    public static List<BitGenome> makeGenerationFromParents     (List<BitGenome> parents, int generationSize) {
+        return makeGenerationFromParents(parents, generationSize, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param parents the parents of which to make the generation.
+     * @param generationSize the number of children within the generation.
+     * @param settings the settings of the algorithm, whose crossover combines the parents.
+     * @return a mutated generation made from the parents.
+     */
+    public static List<BitGenome> makeGenerationFromParents     (List<BitGenome> parents, int generationSize, GeneticAlgorithm.Settings settings) {
+        return makeGenerationFromParents(parents, 0, null, generationSize, settings, settings.getRandomSource().nextSeed());
+    }
+
+    /**
+     * Writes the children over those of the buffer if it has the right size, which gives the same children as making new ones
+     * since the crossover writes every word of the child.
+     * @param eliteAmount the number of first parents that are copied into the first children unchanged.
+     */
+    private static List<BitGenome> makeGenerationFromParents    (List<BitGenome> parents, int eliteAmount, List<BitGenome> buffer, int generationSize,
+                                                                 GeneticAlgorithm.Settings settings, long generationSeed) {
+        if(generationSize < 1)
+            throw new IllegalArgumentException("generationSize was " + generationSize + " but cannot be less than 1.");
+        int childSize = parents.get(0).size();
+        boolean reuse = buffer != null && buffer.size() == generationSize;
+        List<BitGenome> generation = reuse ? buffer : new ArrayList<BitGenome>(Collections.nCopies(generationSize, null));
+        GeneticAlgorithm.forEachIndex(generationSize, generationSeed, i -> {
+            BitGenome child = generation.get(i);
+            if(child == null || child.size() != childSize)
+                generation.set(i, child = new BitGenome(childSize));
+            if(i < eliteAmount) {
+                child.copyRange(parents.get(i), 0, childSize);
+                carryTotals(child, parents.get(i));
+                return;
+            }
+            int closest = settings.getCrossover().cross(parents, child, RandomSource.current());
+            settings.getMutator().mutate(child, i, generationSize, RandomSource.current()); //The child is not a parent, so it can be mutated in place.
+            carryTotals(child, parents.get(closest));
+        }, settings);
+        return generation;
+    }
+
+    /**
+     * @param childSize the number of genes within the child.
+     * @return a child with random genes.
+     */
+    public static BitGenome       makeChildFromRandom           (int childSize) {
+        if(childSize < 1)
+            throw new IllegalArgumentException("childSize was " + childSize + " but cannot be less than 1.");
+        RandomGenerator random = RandomSource.current();
+        BitGenome child = new BitGenome(childSize);
+        for(int w = 0; w < child.getWordAmount(); w++)
+            child.setWord(w, random.nextLong());
+        return child;
+    }
+
+    /**
+     * For every word two different parents are picked, and a random mask decides which of them each gene is taken from.
+     * @param parents the parents of which to make the child.
+     * @return a child made from randomly picking genes from the parents.
+     */
+    public static BitGenome       makeChildFromParents          (List<BitGenome> parents) {
+        return makeChildFromParents(parents, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param parents the parents of which to make the child.
+     * @param settings the settings of the algorithm, whose crossover combines the parents.
+     * @return a child made from combining the genes of the parents.
+     */
+    public static BitGenome       makeChildFromParents          (List<BitGenome> parents, GeneticAlgorithm.Settings settings) {
+        BitGenome child = new BitGenome(parents.get(0).size());
+        settings.getCrossover().cross(parents, child, RandomSource.current());
+        return child;
+    }
+
+    /**
+     * The genes to mutate are gathered into a mask first, and then every word is given random genes under the mask.
+     * @param child the child of which to make the mutated child.
+     * @param mutateAmount the amount of genes to mutate.
+     * @return a mutated variant of the child.
+     */
+    public static BitGenome       makeMutatedChild              (BitGenome child, int mutateAmount) {
+        if(mutateAmount < 0)
+            throw new IllegalArgumentException("mutateAmount was " + mutateAmount + " but cannot be less than 0.");
+        if(mutateAmount > child.size())
+            throw new IllegalArgumentException("mutateAmount was " + mutateAmount + " but cannot be larger than childSize which was " + child.size() + ".");
+        BitGenome newChild = new BitGenome(child);
+        if(mutateAmount == 0)
+            return newChild;
+        RandomGenerator random = RandomSource.current();
+        long[] mask = new long[child.getWordAmount()];
+        for(int m = 0; m < mutateAmount; ) {
+            int i = random.nextInt(child.size());
+            if((mask[i >>> 6] & (1L << i)) == 0) {
+                mask[i >>> 6] |= 1L << i;
+                m++;
+            }
+        }
+        for(int w = 0; w < mask.length; w++)
+            if(mask[w] != 0)
+                newChild.setWord(w, (child.getWord(w) & ~mask[w]) | (random.nextLong() & mask[w]));
+        carryTotals(newChild, child);
+        return newChild;
+    }
+
+    /**
+     * @param generation the generation of which to make the mutated generation.
+     * @return a mutated variation of the generation.
+     */
+    public static List<BitGenome> makeMutatedGeneration         (List<BitGenome> generation) {
+        return makeMutatedGeneration(generation, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generation the generation of which to make the mutated generation.
+     * @param settings the settings of the algorithm, whose mutator mutates the children.
+     * @return a mutated variation of the generation.
+     */
+    public static List<BitGenome> makeMutatedGeneration         (List<BitGenome> generation, GeneticAlgorithm.Settings settings) {
+        List<BitGenome> mutatedGeneration = new ArrayList<BitGenome>(generation.size());
+        for(int i = 0; i < generation.size(); i++) {
+            BitGenome child = new BitGenome(generation.get(i));
+            settings.getMutator().mutate(child, i, generation.size(), RandomSource.current());
+            carryTotals(child, generation.get(i));
+            mutatedGeneration.add(child);
+        }
+        return mutatedGeneration;
+    }
+
+    /**
+     * The mean fraction of genes that a sample of the children differ from the best child in, where 0 means every sampled child is the same as it.
+     * @param generation the generation to get the diversity of.
+     * @param bestChild the best child of the generation.
+     * @return the diversity of the generation, between 0 and 1.
+     */
+    public static double          getDiversity                  (List<BitGenome> generation, BitGenome bestChild) {
+        return GeneticAlgorithm.getDiversity(generation, bestChild, BitGenome::distance, bestChild.size());
+    }
+
+    /**
+     * If the reference carries totals from a {@link DeltaScorer}, the child is given them updated only for the genes where the two differ,
+     * so that scoring the child does not have to look at all its genes. Only the one genome the child was mostly made from is looked at,
+     * so deciding costs a single pass over the words whatever the number of parents.
+     * Nothing is carried if the reference differs in more genes than the child has true genes,
+     * since working out the totals from scratch is then cheaper. A child that already carries totals keeps them.
+     * @param child the child that has been made from the reference.
+     * @param reference the genome the child took the most genes from.
+     */
+    private static void carryTotals(BitGenome child, BitGenome reference) {
+        if(child.getTotalsScorer() != null || reference.getTotalsScorer() == null)
+            return;
+        int difference = 0, trueGenes = 0;
+        for(int w = 0; w < child.getWordAmount(); w++) {
+            difference += Long.bitCount(child.getWord(w) ^ reference.getWord(w));
+            trueGenes += Long.bitCount(child.getWord(w));
+        }
+        if(difference <= trueGenes)
+            reference.getTotalsScorer().carryTotals(child, reference);
+    }
+
+    /**
+     * @param generation the generation from which to get the best child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return the best child from the generation.
+     */
+    public static BitGenome       getBestChild                  (List<BitGenome> generation, ToIntFunction<BitGenome> childScorer) {
+        return getBestChild(generation, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generation the generation from which to get the best child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best child from the generation.
+     */
+    public static BitGenome       getBestChild                  (List<BitGenome> generation, ToIntFunction<BitGenome> childScorer,
+                                                                 GeneticAlgorithm.Settings settings) {
+        int[] scores = GeneticAlgorithm.getScores(generation, childScorer, settings);
+        int best = 0;
+        for(int i = 1; i < scores.length; i++)
+            if(scores[i] > scores[best])
+                best = i;
+        return generation.get(best);
+    }
+
+    /**
+     * @param generation the generation from which to get the best children.
+     * @param childrenAmount the number of children to get.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @return the best children from the generation.
+     */
+    public static List<BitGenome> getBestChildren               (List<BitGenome> generation, int childrenAmount, ToIntFunction<BitGenome> childScorer) {
+        return getBestChildren(generation, childrenAmount, childScorer, new GeneticAlgorithm.Settings());
+    }
+
+    /**
+     * @param generation the generation from which to get the best children.
+     * @param childrenAmount the number of children to get.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best children from the generation.
+     */
+    public static List<BitGenome> getBestChildren               (List<BitGenome> generation, int childrenAmount, ToIntFunction<BitGenome> childScorer,
+                                                                 GeneticAlgorithm.Settings settings) {
+        if(childrenAmount < 1)
+            throw new IllegalArgumentException("childrenAmount was " + childrenAmount + " but cannot be less than 1.");
+        if(childrenAmount > generation.size())
+            throw new IllegalArgumentException("childrenAmount was " + childrenAmount + " but cannot be larger than generationSize which was " + generation.size() + ".");
+        int[] bestIndices = GeneticAlgorithm.getBestIndices(GeneticAlgorithm.getScores(generation, childScorer, settings), childrenAmount);
+        List<BitGenome> bestChildren = new ArrayList<BitGenome>(childrenAmount);
+        for(int i : bestIndices)
+            bestChildren.add(generation.get(i));
+        return bestChildren;
+    }
+
+}
@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A boolean genome packed into 64-bit words, so that crossover, mutation and scoring can work on whole words at a time.
+ * Bits past the size of the genome are always kept at 0.
+ */
+public class BitGenome {
+
+    private final long[] words;
+    private final int size;
+
+    // The totals a delta scorer keeps for this genome, which are dropped whenever a gene changes.
+    private DeltaScorer totalsScorer;
+    private int[] totals;
+
+    /**
+     * @param size the number of genes within the genome, which all start as false.
+     */
+    public BitGenome(int size) {
+        if(size < 1)
+            throw new IllegalArgumentException("size was " + size + " but cannot be less than 1.");
+        this.size = size;
+        this.words = new long[getWordAmount(size)];
+    }
+
+    /**
+     * @param genome the genome to copy.
+     */
+    public BitGenome(BitGenome genome) {
+        this.size = genome.size;
+        this.words = genome.words.clone();
+        this.totalsScorer = genome.totalsScorer;
+        this.totals = genome.totals == null ? null : genome.totals.clone();
+    }
+
+    /**
+     * @param list the genes to pack.
+     * @return a genome with the same genes as the list.
+     */
+    public static BitGenome fromList(List<Boolean> list) {
+        BitGenome genome = new BitGenome(list.size());
+        for(int i = 0; i < list.size(); i++)
+            if(list.get(i))
+                genome.words[i >>> 6] |= 1L << i;
+        return genome;
+    }
+
+    /**
+     * @param size the number of genes.
+     * @return the number of words needed to hold that many genes.
+     */
+    public static int getWordAmount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    public List<Boolean> toList() {
+        List<Boolean> list = new ArrayList<Boolean>(size);
+        for(int i = 0; i < size; i++)
+            list.add(get(i));
+        return list;
+    }
+
+    public int size() {return size;}
+    public int getWordAmount() {return words.length;}
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int index, boolean gene) {
+        clearTotals();
+        if(gene)
+            words[index >>> 6] |= 1L << index;
+        else
+            words[index >>> 6] &= ~(1L << index);
+    }
+
+    public void flip(int index) {
+        clearTotals();
+        words[index >>> 6] ^= 1L << index;
+    }
+
+    public long getWord(int wordIndex) {
+        return words[wordIndex];
+    }
+
+    /**
+     * Bits of the last word that lie past the size of the genome are cleared.
+     * @param wordIndex the index of the word to set.
+     * @param word the 64 genes to set.
+     */
+    public void setWord(int wordIndex, long word) {
+        clearTotals();
+        words[wordIndex] = wordIndex == words.length - 1 ? word & getLastWordMask() : word;
+    }
+
+    /**
+     * Copies the genes from one index up to another from a genome of the same size, a whole word at a time.
+     * @param genome the genome to copy from.
+     * @param from the first index to copy, inclusive.
+     * @param to the last index to copy, exclusive.
+     */
+    public void copyRange(BitGenome genome, int from, int to) {
+        if(from >= to)
+            return;
+        clearTotals();
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long firstMask = -1L << from, lastMask = -1L >>> -to;
+        if(first == last) {
+            long mask = firstMask & lastMask;
+            words[first] = (words[first] & ~mask) | (genome.words[first] & mask);
+            return;
+        }
+        words[first] = (words[first] & ~firstMask) | (genome.words[first] & firstMask);
+        System.arraycopy(genome.words, first + 1, words, first + 1, last - first - 1);
+        words[last] = (words[last] & ~lastMask) | (genome.words[last] & lastMask);
+    }
+
+    /**
+     * @return a mask of the bits in the last word that are part of the genome.
+     */
+    public long getLastWordMask() {
+        return -1L >>> (-size & 63);
+    }
+
+    /**
+     * @return the number of genes that are true.
+     */
+    public int cardinality() {
+        int count = 0;
+        for(long word : words)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * @param genome a genome of the same size.
+     * @return the number of genes that differ between the two genomes.
+     */
+    public int distance(BitGenome genome) {
+        int distance = 0;
+        for(int w = 0; w < words.length; w++)
+            distance += Long.bitCount(words[w] ^ genome.words[w]);
+        return distance;
+    }
+
+    /**
+     * @return the delta scorer whose totals this genome carries, or null if it does not carry any.
+     */
+    public DeltaScorer getTotalsScorer() {return totalsScorer;}
+
+    /**
+     * @param scorer the delta scorer the totals belong to.
+     * @return the totals this genome carries for the scorer, which should not be changed, or null if it does not carry any.
+     */
+    public int[] getTotals(DeltaScorer scorer) {
+        return scorer == totalsScorer ? totals : null;
+    }
+
+    /**
+     * The totals are kept until a gene of the genome changes.
+     * @param scorer the delta scorer the totals belong to.
+     * @param totals the totals of this genome.
+     */
+    public void setTotals(DeltaScorer scorer, int[] totals) {
+        this.totalsScorer = scorer;
+        this.totals = totals;
+    }
+
+    private void clearTotals() {
+        totalsScorer = null;
+        totals = null;
+    }
+
+    public boolean equals(Object object) {
+        if(this == object) return true;
+        if(!(object instanceof BitGenome)) return false;
+        BitGenome genome = (BitGenome) object;
+        return size == genome.size && Arrays.equals(words, genome.words);
+    }
+
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder(size * 3 + 2).append('[');
+        for(int i = 0; i < size; i++)
+            builder.append(i == 0 ? "" : ", ").append(get(i) ? 1 : 0);
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,37 @@
+import java.util.List;
+
+/**
+ * Scores packings of a knapsack problem, and can score or sum a block of them at once,
+ * which lets an implementation load the weights and prices of the items once for several packings.
+ * The scores are the same as those of {@link KnapsackProblem#getPriceIfAllowed(BitGenome)}.
+ */
+public interface BlockScorer {
+
+    /**
+     * @param genome the packing to score.
+     * @return the price of the packing, or 0 if it weighs more than the maximum weight.
+     */
+    int getPriceIfAllowed(BitGenome genome);
+
+    /**
+     * Works out the weight and the price of every packing of the block, which the packings can then carry as totals of the problem.
+     * @param generation the packings to sum.
+     * @param from the index of the first packing of the block.
+     * @param to the index after the last packing of the block.
+     * @param weightSums the array to write the weight of each packing into, at the same index as the packing.
+     * @param priceSums the array to write the price of each packing into, at the same index as the packing.
+     */
+    void sumBlock(List<BitGenome> generation, int from, int to, int[] weightSums, int[] priceSums);
+
+    /**
+     * @param generation the packings to score.
+     * @param from the index of the first packing of the block.
+     * @param to the index after the last packing of the block.
+     * @param scores the array to write the score of each packing into, at the same index as the packing.
+     */
+    default void scoreBlock(List<BitGenome> generation, int from, int to, int[] scores) {
+        for(int i = from; i < to; i++)
+            scores[i] = getPriceIfAllowed(generation.get(i));
+    }
+
+}
@@ -0,0 +1,302 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A saved generation of packed boolean children, with their scores, the state of the random source and the number of generations made,
+ * from which a run can be resumed exactly as if it had never stopped.
+ * <p>
+ * The file starts with the magic number {@code GACP} and a version, followed by the generation number, the seed and counter of the random source,
+ * the generation size, the child size and whether scores follow. Then come the scores, and last the words of every child one after another.
+ * All numbers are big-endian.
+ */
+public class Checkpoint {
+
+    private static final int MAGIC = 0x47414350; //"GACP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4 + 4 + 1;
+
+    private final List<BitGenome> generation;
+    private final int[] scores;
+    private final long seed, counter;
+    private final long generationNumber;
+
+    /**
+     * The state of the random source is saved as it is now, so the checkpoint should be made before the next generation is.
+     * @param generation the generation to save, which all have the same size.
+     * @param scores the score of each child of the generation, or null if they are not saved.
+     * @param randomSource the random source of the run.
+     * @param generationNumber the number of generations the run has made.
+     */
+    public Checkpoint(List<BitGenome> generation, int[] scores, RandomSource randomSource, long generationNumber) {
+        if(generation.isEmpty())
+            throw new IllegalArgumentException("There has to be at least 1 child.");
+        if(scores != null && scores.length != generation.size())
+            throw new IllegalArgumentException("There were " + scores.length + " scores but " + generation.size() + " children.");
+        this.generation = generation;
+        this.scores = scores;
+        this.seed = randomSource.getSeed();
+        this.counter = randomSource.getCounter();
+        this.generationNumber = generationNumber;
+    }
+
+    /**
+     * @param generation the generation to save, whose genes are converted to packed genes.
+     * @param scores the score of each child of the generation, or null if they are not saved.
+     * @param randomSource the random source of the run.
+     * @param generationNumber the number of generations the run has made.
+     * @return a checkpoint of the generation.
+     */
+    public static Checkpoint ofLists(List<List<Boolean>> generation, int[] scores, RandomSource randomSource, long generationNumber) {
+        List<BitGenome> bits = new ArrayList<BitGenome>(generation.size());
+        for(List<Boolean> child : generation)
+            bits.add(BitGenome.fromList(child));
+        return new Checkpoint(bits, scores, randomSource, generationNumber);
+    }
+
+    public List<BitGenome> getGeneration() {return generation;}
+    public long getGenerationNumber() {return generationNumber;}
+    public int getGenerationSize() {return generation.size();}
+    public int getChildSize() {return generation.get(0).size();}
+    public boolean hasScores() {return scores != null;}
+
+    /**
+     * @return the score of each child of the generation, or null if they were not saved.
+     */
+    public int[] getScores() {return scores == null ? null : scores.clone();}
+
+    /**
+     * @return the generation with every child as a list of genes.
+     */
+    public List<List<Boolean>> getListGeneration() {
+        List<List<Boolean>> lists = new ArrayList<List<Boolean>>(generation.size());
+        for(BitGenome child : generation)
+            lists.add(child.toList());
+        return lists;
+    }
+
+    /**
+     * @return a random source in the state it was saved in, which gives the same streams as the one of the run would have from there on.
+     */
+    public RandomSource getRandomSource() {return new RandomSource(seed, counter);}
+
+    /**
+     * Gives the settings the random source of the checkpoint, so that making generations from the generation of the checkpoint
+     * with them gives the same generations as the run it was saved from.
+     * @param settings the settings to resume the run with, which should otherwise be the same as those of the run.
+     * @return the generation to resume from.
+     */
+    public List<BitGenome> resume(GeneticAlgorithm.Settings settings) {
+        settings.setRandomSource(getRandomSource());
+        return generation;
+    }
+
+    /**
+     * @return the checkpoint in the format of the file, ready to be read from the start.
+     */
+    public ByteBuffer encode() {
+        int words = generation.get(0).getWordAmount();
+        long size = HEADER_SIZE + (scores != null ? 4L * scores.length : 0) + 8L * words * generation.size();
+        if(size > Integer.MAX_VALUE)
+            throw new IllegalStateException("The checkpoint would take " + size + " bytes, which is more than a buffer can hold.");
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION)
+              .putLong(generationNumber).putLong(seed).putLong(counter)
+              .putInt(generation.size()).putInt(getChildSize())
+              .put((byte) (scores != null ? 1 : 0));
+        if(scores != null)
+            buffer.asIntBuffer().put(scores);
+        buffer.position(buffer.position() + (scores != null ? 4 * scores.length : 0));
+        for(BitGenome child : generation) {
+            if(child.size() != getChildSize())
+                throw new IllegalStateException("Every child has to have " + getChildSize() + " genes, but one had " + child.size() + ".");
+            for(int w = 0; w < words; w++)
+                buffer.putLong(child.getWord(w));
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * @param buffer a checkpoint in the format of the file.
+     * @return the checkpoint.
+     * @throws IOException if the buffer does not hold a checkpoint of a known version.
+     */
+    public static Checkpoint decode(ByteBuffer buffer) throws IOException {
+        if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException("The data is not a checkpoint.");
+        int version = buffer.getInt();
+        if(version != VERSION)
+            throw new IOException("The checkpoint has version " + version + " but only version " + VERSION + " can be read.");
+        long generationNumber = buffer.getLong(), seed = buffer.getLong(), counter = buffer.getLong();
+        int generationSize = buffer.getInt(), childSize = buffer.getInt();
+        boolean hasScores = buffer.get() != 0;
+        if(generationSize < 1 || childSize < 1)
+            throw new IOException("The checkpoint has " + generationSize + " children of " + childSize + " genes.");
+        int words = BitGenome.getWordAmount(childSize);
+        if(buffer.remaining() != (hasScores ? 4L * generationSize : 0) + 8L * words * generationSize)
+            throw new IOException("The checkpoint has " + buffer.remaining() + " bytes after its header, which does not fit its sizes.");
+        int[] scores = null;
+        if(hasScores) {
+            scores = new int[generationSize];
+            buffer.asIntBuffer().get(scores);
+            buffer.position(buffer.position() + 4 * generationSize);
+        }
+        List<BitGenome> generation = new ArrayList<BitGenome>(generationSize);
+        for(int i = 0; i < generationSize; i++) {
+            BitGenome child = new BitGenome(childSize);
+            for(int w = 0; w < words; w++)
+                child.setWord(w, buffer.getLong());
+            generation.add(child);
+        }
+        return new Checkpoint(generation, scores, new RandomSource(seed, counter), generationNumber);
+    }
+
+    /**
+     * @param path the file to write the checkpoint to, which is replaced in one step so it never holds half a checkpoint.
+     * @throws IOException if the file could not be written.
+     */
+    public void write(Path path) throws IOException {
+        write(encode(), path);
+    }
+
+    /**
+     * Writes the buffer to a temporary file next to the path, forces it to the disk and then moves it over the path.
+     */
+    private static void write(ByteBuffer buffer, Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+        try {
+            Files.move(temporary, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Large files are mapped into memory instead of copied into a buffer.
+     * @param path the file to read the checkpoint from.
+     * @return the checkpoint.
+     * @throws IOException if the file could not be read or does not hold a checkpoint.
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+                throw new IOException("The file is " + size + " bytes, which is more than a checkpoint can be.");
+            if(size >= 1 << 20)
+                return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+            return decode(buffer.flip());
+        }
+    }
+
+    public String toString() {
+        return "[" + generationNumber + "," + generation.size() + "," + getChildSize() + "," + seed + "," + counter + "]";
+    }
+
+    /**
+     * Writes checkpoints of a run every few generations to the same file on a thread of its own,
+     * so the run only waits for the generation to be copied into a buffer and not for the disk.
+     * If the disk is slower than the run, checkpoints that are still waiting are replaced by newer ones.
+     */
+    public static class Writer implements Closeable {
+
+        private final Path path;
+        private final int interval;
+        private final ExecutorService executor;
+        private final AtomicReference<ByteBuffer> pending = new AtomicReference<ByteBuffer>();
+        private final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+
+        /**
+         * @param path the file to write the checkpoints to.
+         * @param interval the number of generations between checkpoints.
+         */
+        public Writer(Path path, int interval) {
+            if(interval < 1)
+                throw new IllegalArgumentException("interval was " + interval + " but cannot be less than 1.");
+            this.path = path;
+            this.interval = interval;
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Checkpoint writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        public Path getPath() {return path;}
+        public int getInterval() {return interval;}
+
+        /**
+         * @param generationNumber the number of generations the run has made.
+         * @return whether a checkpoint should be written after that many generations.
+         */
+        public boolean isDue(long generationNumber) {
+            return generationNumber % interval == 0;
+        }
+
+        /**
+         * Copies the checkpoint into a buffer and writes it to the file in the background.
+         * @param checkpoint the checkpoint to write.
+         * @throws UncheckedIOException if an earlier checkpoint could not be written.
+         */
+        public void write(Checkpoint checkpoint) {
+            throwFailure();
+            if(pending.getAndSet(checkpoint.encode()) == null)
+                executor.execute(this::writePending);
+        }
+
+        private void writePending() {
+            ByteBuffer buffer = pending.getAndSet(null);
+            if(buffer == null)
+                return;
+            try {
+                Checkpoint.write(buffer, path);
+            } catch(IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void throwFailure() {
+            IOException e = failure.getAndSet(null);
+            if(e != null)
+                throw new UncheckedIOException("Could not write the checkpoint to " + path + ".", e);
+        }
+
+        /**
+         * Waits for the last checkpoint to be written.
+         * @throws IOException if a checkpoint could not be written.
+         */
+        public void close() throws IOException {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            IOException e = failure.getAndSet(null);
+            if(e != null)
+                throw e;
+        }
+
+    }
+
+}
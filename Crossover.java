@@ -0,0 +1,172 @@
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides how the genes of the parents are combined into a child.
+ * The child is given as a buffer of the right size that is written into, so no new lists are made per gene.
+ */
+public interface Crossover {
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param parents the parents of which to make the child.
+     * @param child the child to write the genes into, which has the same size as the parents.
+     * @param random the random generator to use.
+     */
+    <Type> void cross(List<List<Type>> parents, List<Type> child, RandomGenerator random);
+
+    /**
+     * @param parents the parents of which to make the child.
+     * @param child the child to write the genes into, which has the same size as the parents.
+     * @param random the random generator to use.
+     * @return the index of the parent the child took the most genes from, whose scoring totals the child starts from.
+     */
+    int cross(List<BitGenome> parents, BitGenome child, RandomGenerator random);
+
+    /**
+     * Picks every gene from a random parent.
+     * For packed genes, two different parents are picked for every word, and a random mask decides which of them each gene is taken from.
+     * The child is then equally close to every parent, so the first parent picked is returned as the one it took the most genes from.
+     */
+    public static class Uniform implements Crossover {
+
+        public <Type> void cross(List<List<Type>> parents, List<Type> child, RandomGenerator random) {
+            for(int i = 0; i < child.size(); i++)
+                child.set(i, parents.get(random.nextInt(parents.size())).get(i));
+        }
+
+        public int cross(List<BitGenome> parents, BitGenome child, RandomGenerator random) {
+            int first = 0;
+            for(int w = 0; w < child.getWordAmount(); w++) {
+                if(parents.size() == 1) {
+                    child.setWord(w, parents.get(0).getWord(w));
+                    continue;
+                }
+                int a = random.nextInt(parents.size());
+                int b = random.nextInt(parents.size() - 1);
+                if(b >= a) b++;
+                long mask = random.nextLong();
+                child.setWord(w, (parents.get(a).getWord(w) & mask) | (parents.get(b).getWord(w) & ~mask));
+                if(w == 0)
+                    first = a;
+            }
+            return first;
+        }
+
+        public String toString() {
+            return "Uniform";
+        }
+
+    }
+
+    /**
+     * Cuts the child at a number of random points and takes each segment from a random parent,
+     * which is never the same parent as the segment before it if there is more than one parent.
+     * Packed genes are copied a whole word at a time.
+     */
+    public static class KPoint implements Crossover {
+
+        private final int points;
+        private final ThreadLocal<int[]> cutBuffers;
+
+        /**
+         * @param points the number of points to cut the child at.
+         */
+        public KPoint(int points) {
+            if(points < 1)
+                throw new IllegalArgumentException("points was " + points + " but cannot be less than 1.");
+            this.points = points;
+            this.cutBuffers = ThreadLocal.withInitial(() -> new int[points]);
+        }
+
+        public <Type> void cross(List<List<Type>> parents, List<Type> child, RandomGenerator random) {
+            int[] cuts = cutBuffers.get();
+            int cutAmount = makeCuts(cuts, child.size(), random);
+            int parent = random.nextInt(parents.size());
+            int from = 0;
+            for(int c = 0; c <= cutAmount; c++) {
+                int to = c < cutAmount ? cuts[c] : child.size();
+                List<Type> source = parents.get(parent);
+                for(int i = from; i < to; i++)
+                    child.set(i, source.get(i));
+                parent = nextParent(parent, parents.size(), random);
+                from = to;
+            }
+        }
+
+        public int cross(List<BitGenome> parents, BitGenome child, RandomGenerator random) {
+            int[] cuts = cutBuffers.get();
+            int cutAmount = makeCuts(cuts, child.size(), random);
+            int parent = random.nextInt(parents.size());
+            int from = 0, longest = parent, longestLength = 0;
+            for(int c = 0; c <= cutAmount; c++) {
+                int to = c < cutAmount ? cuts[c] : child.size();
+                child.copyRange(parents.get(parent), from, to);
+                if(to - from > longestLength) {
+                    longest = parent;
+                    longestLength = to - from;
+                }
+                parent = nextParent(parent, parents.size(), random);
+                from = to;
+            }
+            return longest;
+        }
+
+        /**
+         * Fills the buffer with distinct, sorted cut points between 1 and size - 1.
+         * @return the number of cut points, which is less than the number of points if the child is too small.
+         */
+        private int makeCuts(int[] cuts, int size, RandomGenerator random) {
+            int cutAmount = Math.min(points, size - 1);
+            if(cutAmount == size - 1) {
+                for(int c = 0; c < cutAmount; c++)
+                    cuts[c] = c + 1;
+                return cutAmount;
+            }
+            int made = 0;
+            while(made < cutAmount) {
+                int cut = 1 + random.nextInt(size - 1);
+                int position = made;
+                while(position > 0 && cuts[position - 1] > cut)
+                    position--;
+                if(position > 0 && cuts[position - 1] == cut)
+                    continue;
+                System.arraycopy(cuts, position, cuts, position + 1, made - position);
+                cuts[position] = cut;
+                made++;
+            }
+            return cutAmount;
+        }
+
+        private int nextParent(int parent, int parentAmount, RandomGenerator random) {
+            if(parentAmount == 1)
+                return parent;
+            int next = random.nextInt(parentAmount - 1);
+            return next >= parent ? next + 1 : next;
+        }
+
+        public int getPoints() {return points;}
+
+        public String toString() {
+            return "KPoint[" + points + "]";
+        }
+
+    }
+
+    public static class OnePoint extends KPoint {
+
+        public OnePoint() {
+            super(1);
+        }
+
+    }
+
+    public static class TwoPoint extends KPoint {
+
+        public TwoPoint() {
+            super(2);
+        }
+
+    }
+
+}
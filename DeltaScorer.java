@@ -0,0 +1,79 @@
+import java.util.function.ToIntFunction;
+
+/**
+ * A child scorer that keeps a few running totals for each child, from which the score can be found without looking at every gene.
+ * When the algorithm makes a child, it starts from the totals of the parent the crossover took the most genes from
+ * and only updates them for the genes that differ, so scoring costs as much as the number of changed genes.
+ */
+public interface DeltaScorer extends ToIntFunction<BitGenome> {
+
+    /**
+     * @return the number of totals kept for each child.
+     */
+    int getTotalAmount();
+
+    /**
+     * @param gene the index of a gene that has turned true.
+     * @param totals the totals to update.
+     */
+    void addGene(int gene, int[] totals);
+
+    /**
+     * @param gene the index of a gene that has turned false.
+     * @param totals the totals to update.
+     */
+    void removeGene(int gene, int[] totals);
+
+    /**
+     * @param totals the totals of a child.
+     * @return the score of the child.
+     */
+    int score(int[] totals);
+
+    /**
+     * @param genome the child to get the totals of.
+     * @return the totals the child carries, which are worked out from all its genes if it does not carry any yet.
+     */
+    default int[] getTotals(BitGenome genome) {
+        int[] totals = genome.getTotals(this);
+        if(totals == null) {
+            totals = new int[getTotalAmount()];
+            for(int w = 0; w < genome.getWordAmount(); w++) {
+                long word = genome.getWord(w);
+                while(word != 0) {
+                    addGene((w << 6) + Long.numberOfTrailingZeros(word), totals);
+                    word &= word - 1;
+                }
+            }
+            genome.setTotals(this, totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Gives the child the totals of the reference updated for every gene where the two differ.
+     * @param child the child to give totals.
+     * @param reference a genome of the same size that already carries totals.
+     */
+    default void carryTotals(BitGenome child, BitGenome reference) {
+        int[] totals = getTotals(reference).clone();
+        for(int w = 0; w < child.getWordAmount(); w++) {
+            long childWord = child.getWord(w);
+            long difference = childWord ^ reference.getWord(w);
+            while(difference != 0) {
+                int bit = Long.numberOfTrailingZeros(difference);
+                if((childWord & (1L << bit)) != 0)
+                    addGene((w << 6) + bit, totals);
+                else
+                    removeGene((w << 6) + bit, totals);
+                difference &= difference - 1;
+            }
+        }
+        child.setTotals(this, totals);
+    }
+
+    default int applyAsInt(BitGenome genome) {
+        return score(getTotals(genome));
+    }
+
+}
@@ -0,0 +1,190 @@
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A child scorer that remembers the scores of the most recently scored children,
+ * so that duplicated children and children scored again in a later step are not scored from scratch.
+ * It can be used anywhere a child scorer is expected, and is safe to use from several threads.
+ * <p>
+ * Children are looked up by a 64-bit hash of their genes, so a lookup only reads the genes once and the cache never copies a child.
+ * Two different children with the same hash would share a score, but with 64 bits that is so unlikely that it can be ignored.
+ * The scores are split into segments by hash, each with a lock of its own, so threads scoring different children rarely wait for each other.
+ * @param <Child> the type of the children.
+ */
+public class FitnessCache<Child> implements Function<Child, Integer>, ToIntFunction<Child> {
+
+    private static final int MAX_SEGMENT_AMOUNT = 16;
+
+    private final ToIntFunction<Child> childScorer;
+    private final ToLongFunction<Child> childHasher;
+    private final int capacity;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder(),
+                            misses = new LongAdder();
+
+    /**
+     * @param childScorer the scorer to use for children that are not in the cache.
+     * @param childHasher a function that gives a 64-bit hash of the genes of a child, which should be well mixed in all its bits.
+     * @param capacity the maximum number of scores to remember, after which the least recently used ones in each segment are forgotten.
+     */
+    public FitnessCache(ToIntFunction<Child> childScorer, ToLongFunction<Child> childHasher, int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("capacity was " + capacity + " but cannot be less than 1.");
+        this.childScorer = childScorer;
+        this.childHasher = childHasher;
+        this.capacity = capacity;
+        int segmentAmount = Math.min(MAX_SEGMENT_AMOUNT, Integer.highestOneBit(capacity));
+        this.segments = new Segment[segmentAmount];
+        for(int i = 0; i < segmentAmount; i++)
+            segments[i] = new Segment(capacity / segmentAmount + (i < capacity % segmentAmount ? 1 : 0));
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param childScorer the scorer to use for children that are not in the cache.
+     * @param capacity the maximum number of scores to remember.
+     * @return a cache for children made of lists of genes.
+     */
+    public static <Type> FitnessCache<List<Type>> ofList(Function<List<Type>, Integer> childScorer, int capacity) {
+        return new FitnessCache<List<Type>>(childScorer::apply, FitnessCache::hashList, capacity);
+    }
+
+    /**
+     * @param childScorer the scorer to use for children that are not in the cache.
+     * @param capacity the maximum number of scores to remember.
+     * @return a cache for children made of packed boolean genes.
+     */
+    public static FitnessCache<BitGenome> ofBits(ToIntFunction<BitGenome> childScorer, int capacity) {
+        return new FitnessCache<BitGenome>(childScorer, FitnessCache::hashBits, capacity);
+    }
+
+    /**
+     * @param child a child of packed boolean genes.
+     * @return a hash of the size and the words of the child.
+     */
+    public static long hashBits(BitGenome child) {
+        long hash = child.size();
+        for(int w = 0; w < child.getWordAmount(); w++)
+            hash = RandomSource.mix(hash + child.getWord(w));
+        return RandomSource.mix(hash);
+    }
+
+    /**
+     * Boolean genes are packed 64 at a time before they are mixed in, so they are hashed about as fast as a bit genome of the same size.
+     * @param <Type> the object type of the genes.
+     * @param child a child of genes.
+     * @return a hash of the size and the genes of the child.
+     */
+    public static <Type> long hashList(List<Type> child) {
+        long hash = child.size(), word = 0;
+        int bits = 0;
+        for(Type gene : child) {
+            if(gene instanceof Boolean) {
+                word = word << 1 | ((Boolean) gene ? 1 : 0);
+                if(++bits == 64) {
+                    hash = RandomSource.mix(hash + word);
+                    word = 0;
+                    bits = 0;
+                }
+            }
+            else
+                hash = RandomSource.mix(hash + Objects.hashCode(gene));
+        }
+        return RandomSource.mix(hash + word);
+    }
+
+    private Segment getSegment(long hash) {
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+    public int applyAsInt(Child child) {
+        long hash = childHasher.applyAsLong(child);
+        Segment segment = getSegment(hash);
+        Integer score;
+        synchronized(segment) {
+            score = segment.get(hash);
+        }
+        if(score != null) {
+            hits.increment();
+            return score;
+        }
+        misses.increment();
+        int newScore = childScorer.applyAsInt(child);
+        synchronized(segment) {
+            segment.put(hash, newScore);
+        }
+        return newScore;
+    }
+
+    public Integer apply(Child child) {
+        return applyAsInt(child);
+    }
+
+    /**
+     * Forgets all scores, which is needed if the scorer starts scoring children differently. The counters are kept.
+     */
+    public void clear() {
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments) {
+            synchronized(segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the scorer used for children that are not in the cache.
+     */
+    ToIntFunction<Child> getChildScorer() {return childScorer;}
+
+    public int getCapacity() {return capacity;}
+    public long getHits() {return hits.sum();}
+    public long getMisses() {return misses.sum();}
+
+    public double getHitRate() {
+        long hits = getHits(), total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public String toString() {
+        return "[" + size() + "/" + capacity + "," + getHits() + " hits," + getMisses() + " misses]";
+    }
+
+    /**
+     * The scores of the children whose hashes fall in one segment, forgetting the least recently used when full.
+     * It is locked on itself, since even getting a score changes the order.
+     */
+    private static class Segment extends LinkedHashMap<Long, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > capacity;
+        }
+
+    }
+
+}
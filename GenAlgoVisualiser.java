@@ -1,7 +1,6 @@
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 import java.awt.Graphics;
@@ -18,6 +17,7 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 
 public class GenAlgoVisualiser extends JFrame implements ActionListener{
     
@@ -25,11 +25,16 @@ public class GenAlgoVisualiser extends JFrame implements ActionListener{
                 generationSize = 10,
                 parentAmount = 2,
                 childSize;
-    private Supplier<Boolean> geneSupplier = new Random()::nextBoolean;
-    private Function<List<Boolean>, Integer> childScorer = Backpack::getPriceIfAllowed;
+    private Supplier<Boolean> geneSupplier = () -> RandomSource.current().nextBoolean();
+    private FitnessCache<List<Boolean>> childScorer = FitnessCache.ofList(Backpack::getPriceIfAllowed, 100000);
+    private GeneticAlgorithm.Settings settings = new GeneticAlgorithm.Settings();
+    private Termination termination = new Termination();
 
     private List<List<Boolean>> currentGen;
-    private List<Integer> scores = new ArrayList<Integer>();
+    private AlgorithmWorker worker;
+    private ScoreGraph graph = new ScoreGraph(2048);
+    private int bestScore, generationNumber;
+    private StringBuilder bestScores = new StringBuilder();
 
     private String input = generationAmount + "";
 
@@ -146,42 +151,50 @@ public class GenAlgoVisualiser extends JFrame implements ActionListener{
     }
 
     private void paintRunning() {
-        inputDesc.setText("Mellemrum: Kør algoritmen med samme indstillinger. " +
-                          "Enter: Kør algoritmen med nye indstillinger. " +
-                          "Delete: Start algoritmen forfra. " +
-                          "Control: Redigér listen af genstande.");
-        newScoreDesc.setText("Værdien på den bedste taske-kombinationer var " + scores.get(scores.size() - 1) + ".");
+        if(worker != null) {
+            inputDesc.setText("Mellemrum: Stop algoritmen. " +
+                              "Delete: Stop og start algoritmen forfra.");
+            newScoreDesc.setText("Værdien på den bedste taske-kombination er indtil videre " + bestScore + " efter " + generationNumber + " generationer.");
+        }
+        else {
+            inputDesc.setText("Mellemrum: Kør algoritmen med samme indstillinger. " +
+                              "Enter: Kør algoritmen med nye indstillinger. " +
+                              "Delete: Start algoritmen forfra. " +
+                              "Control: Redigér listen af genstande.");
+            newScoreDesc.setText("Værdien på den bedste taske-kombinationer var " + bestScore + ".");
+        }
         parAmntDesc.setText("Antal af forældre: " + parentAmount);
     }
 
     private void paintGraph(Graphics g) {
-        if(scores.size() <= 1) return;
+        int[] scores = graph.getPoints();
+        if(scores.length <= 1) return;
 
-        float max = scores.stream().max(Integer::compare).get();
-        float min = scores.stream().min(Integer::compare).get();
+        float max = Arrays.stream(scores).max().getAsInt();
+        float min = Arrays.stream(scores).min().getAsInt();
 
         if(min == max) return;
 
-        float spread = (float) getWidth() / (scores.size() - 1);
+        float spread = (float) getWidth() / (scores.length - 1);
 
-        int[] xPoints = new int[scores.size() + 2];
-        int[] yPoints = new int[scores.size() + 2];
+        int[] xPoints = new int[scores.length + 2];
+        int[] yPoints = new int[scores.length + 2];
 
         yPoints[0] = getHeight();
 
         xPoints[xPoints.length - 1] = getWidth();
         yPoints[yPoints.length - 1] = getHeight();
 
-        for(int i = 0; i < scores.size(); i++) {
+        for(int i = 0; i < scores.length; i++) {
             xPoints[i + 1] = (int) (i * spread);
             yPoints[i + 1] = (int) (getHeight() - (
-                                        (scores.get(i) - min) /
-                                        (max           - min) *
+                                        (scores[i] - min) /
+                                        (max       - min) *
                                         getHeight() * 3/5));
         }
 
         g.setColor(Color.RED);
-        g.fillPolygon(xPoints, yPoints, scores.size() + 2);
+        g.fillPolygon(xPoints, yPoints, scores.length + 2);
     }
 
     private void paintItemName() {
@@ -211,37 +224,74 @@ public class GenAlgoVisualiser extends JFrame implements ActionListener{
     }
 
     private void resetAlgorithm() {
+        stopAlgorithm();
         currentGen = null;
-        scores.clear();
+        childScorer.clear();
+        graph.clear();
+        bestScores.setLength(0);
         revalidate();
         repaint();
     }
 
     private void restartAlgorithm() {
-        scores.clear();
+        stopAlgorithm();
+        graph.clear();
+        bestScores.setLength(0);
         inputDesc.setText(" ");
         newScoreDesc.setText(" ");
         scoresDesc.setText(" ");
         currentGen = null;
     }
 
+    /**
+     * Starts a run on a background thread, which shows its progress as it goes and can be stopped with {@link #stopAlgorithm}.
+     */
     private void runAlgorithm() {
+        if(worker != null) return;
         childSize = Backpack.getItemSizeFull();
-        if(currentGen == null)
-            currentGen = GeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer);
-        else
-            currentGen = GeneticAlgorithm.makeGenerationsFromGeneration(currentGen, generationAmount, generationSize, parentAmount, geneSupplier, childScorer);
-        List<Boolean> bestChild = GeneticAlgorithm.getBestChild(currentGen, childScorer);
-        scores.add(Backpack.getPriceIfAllowed(bestChild));
-        crntItemsDesc.setText(Backpack.getNames(bestChild));
-        String text = "<html>De bedste taske-værdier har været: ";
-        for(int i : scores)
-            text += i + " ";
-        text += "</html>";
-        scoresDesc.setText(text);
+        bestScore = 0;
+        generationNumber = 0;
+        worker = new AlgorithmWorker(currentGen, generationAmount, generationSize, parentAmount, childSize);
+        worker.execute();
+    }
+
+    /**
+     * Stops the run that is going, if any, and forgets it, so nothing more it makes is shown.
+     * Waits for the run to finish the generation it is on, so the items, the cache and the settings it uses are free to change afterwards.
+     */
+    private void stopAlgorithm() {
+        if(worker == null) return;
+        AlgorithmWorker stopped = worker;
+        worker = null;
+        stopped.requestStop();
+        try {
+            stopped.get();
+        } catch(ExecutionException e) {
+            //The run is thrown away, so there is nothing to show about why it failed.
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private void keyPress(KeyEvent k) {
+        if(worker != null) {
+            switch(k.getKeyCode()) {
+                case KeyEvent.VK_ESCAPE:
+                    stopAlgorithm();
+                    dispose();
+                    return;
+                case KeyEvent.VK_DELETE:
+                    restartAlgorithm();
+                    state = State.GEN_AMOUNT;
+                    repaint();
+                    return;
+                case KeyEvent.VK_SPACE:
+                    worker.requestStop(); //Finishes the run with what it has made so far.
+                    return;
+                default:
+                    return; //The settings and the items cannot change while the algorithm runs.
+            }
+        }
         switch(k.getKeyCode()) {
             case KeyEvent.VK_ESCAPE:
                 dispose();
@@ -359,6 +409,7 @@ public class GenAlgoVisualiser extends JFrame implements ActionListener{
     }
 
     public void actionPerformed(ActionEvent e) {
+        if(worker != null) return; //The items cannot change while the algorithm runs.
         if(itemButtons.getComponentCount() <= 1) return;
         int index = Integer.parseInt(e.getActionCommand());
         Backpack.removeItem(index);
@@ -367,4 +418,172 @@ public class GenAlgoVisualiser extends JFrame implements ActionListener{
         updateItemButtons();
         resetAlgorithm();
     }
+
+    /**
+     * The generations made since the last progress, and the best child so far.
+     */
+    private static class Progress {
+
+        private final int[] bestScores;
+        private final int generationNumber, bestScore;
+        private final List<Boolean> bestChild;
+
+        Progress(int[] bestScores, int generationNumber, int bestScore, List<Boolean> bestChild) {
+            this.bestScores = bestScores;
+            this.generationNumber = generationNumber;
+            this.bestScore = bestScore;
+            this.bestChild = bestChild;
+        }
+
+    }
+
+    /**
+     * Makes the generations of a run off the event thread, and hands the best score of every generation to the window
+     * at most {@link #FRAME_RATE} times a second, however fast the generations are made.
+     */
+    private class AlgorithmWorker extends SwingWorker<List<List<Boolean>>, Progress> {
+
+        private static final int FRAME_RATE = 30;
+
+        private final List<List<Boolean>> start;
+        private final int generationAmount, generationSize, parentAmount, childSize;
+        private volatile boolean stopRequested = false;
+
+        // The best score of every generation since the last progress, only used by the thread making the run.
+        private int[] pending = new int[64];
+        private int pendingSize = 0;
+        private long publishTime = System.nanoTime();
+
+        /**
+         * @param start the generation to continue from, or null to start from random children.
+         */
+        AlgorithmWorker(List<List<Boolean>> start, int generationAmount, int generationSize, int parentAmount, int childSize) {
+            this.start = start;
+            this.generationAmount = generationAmount;
+            this.generationSize = generationSize;
+            this.parentAmount = parentAmount;
+            this.childSize = childSize;
+        }
+
+        /**
+         * Makes the run stop after the generation it is on, and return that generation as its last.
+         */
+        void requestStop() {stopRequested = true;}
+
+        protected List<List<Boolean>> doInBackground() {
+            RunResult<List<Boolean>> result = start == null
+                ? GeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer,
+                                                   termination, this::generationMade, settings)
+                : GeneticAlgorithm.makeGenerationsFromGeneration(start, generationAmount, generationSize, parentAmount, geneSupplier, childScorer,
+                                                                 termination, this::generationMade, settings);
+            publishPending(result.getGenerationAmount(), result.getBestScore(), result.getBestChild());
+            return result.getGeneration();
+        }
+
+        /**
+         * Keeps the best score of the generation, and publishes the kept scores if it has been long enough since the last time.
+         */
+        private boolean generationMade(int generationNumber, int[] scores, List<Boolean> bestChild, int bestScore) {
+            if(start != null && generationNumber == 0)
+                return !stopRequested; //The generation to continue from was the last of the run before, so it is already shown.
+            int best = scores[0];
+            for(int score : scores)
+                best = Math.max(best, score);
+            if(pendingSize == pending.length)
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            pending[pendingSize++] = best;
+            if(System.nanoTime() - publishTime >= 1000000000L / FRAME_RATE)
+                publishPending(generationNumber, bestScore, bestChild);
+            return !stopRequested;
+        }
+
+        private void publishPending(int generationNumber, int bestScore, List<Boolean> bestChild) {
+            publish(new Progress(Arrays.copyOf(pending, pendingSize), generationNumber, bestScore, bestChild));
+            pendingSize = 0;
+            publishTime = System.nanoTime();
+        }
+
+        protected void process(List<Progress> chunks) {
+            if(worker != this) return;
+            for(Progress progress : chunks)
+                graph.addAll(progress.bestScores);
+            Progress last = chunks.get(chunks.size() - 1);
+            if(last.bestScore != bestScore || generationNumber == 0)
+                crntItemsDesc.setText(Backpack.getNames(last.bestChild));
+            bestScore = last.bestScore;
+            generationNumber = last.generationNumber;
+            repaint();
+        }
+
+        protected void done() {
+            if(worker != this) return;
+            worker = null;
+            try {
+                currentGen = get();
+                bestScores.append(bestScore).append(' ');
+                scoresDesc.setText("<html>De bedste taske-værdier har været: " + bestScores + "</html>");
+            } catch(ExecutionException e) {
+                newScoreDesc.setText("Algoritmen fejlede: " + e.getCause());
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            repaint();
+        }
+
+    }
+
+    /**
+     * The best score of every generation, kept as at most a fixed number of points by merging every two neighbouring points
+     * into one with the higher score whenever it is full, so a run of millions of generations takes no more memory or time to draw than a short one.
+     */
+    static class ScoreGraph {
+
+        private final int[] points;
+        private int size = 0,
+                    generationsPerPoint = 1,
+                    generationsInLast = 0;
+
+        /**
+         * @param capacity the largest number of points, which has to be even.
+         */
+        ScoreGraph(int capacity) {
+            if(capacity < 2 || capacity % 2 != 0)
+                throw new IllegalArgumentException("capacity was " + capacity + " but has to be even and at least 2.");
+            points = new int[capacity];
+        }
+
+        void add(int score) {
+            if(size > 0 && generationsInLast < generationsPerPoint) {
+                points[size - 1] = Math.max(points[size - 1], score);
+                generationsInLast++;
+                return;
+            }
+            if(size == points.length) {
+                for(int i = 0; i < size / 2; i++)
+                    points[i] = Math.max(points[2 * i], points[2 * i + 1]);
+                size /= 2;
+                generationsPerPoint *= 2;
+            }
+            points[size++] = score;
+            generationsInLast = 1;
+        }
+
+        void addAll(int[] scores) {
+            for(int score : scores)
+                add(score);
+        }
+
+        void clear() {
+            size = 0;
+            generationsPerPoint = 1;
+            generationsInLast = 0;
+        }
+
+        /**
+         * @return the points, each of which is the highest score of the generations it covers.
+         */
+        int[] getPoints() {return Arrays.copyOf(points, size);}
+
+    }
+
 }
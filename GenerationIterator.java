@@ -0,0 +1,124 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Makes generations one at a time as they are asked for, without end, so a caller can look at every generation,
+ * stop whenever it wants and keep only what it needs. Each generation is made from the one returned before it,
+ * and the scores of a generation are only worked out once, whether they are asked for or needed to make the next generation.
+ * <p>
+ * With settings that are {@link GeneticAlgorithm.Settings#setInPlace in place}, the children of a generation are written over
+ * two generations later, so children that should be kept have to be copied before then.
+ * The iterator is not thread-safe, so generations handed to another thread, for example to log or draw them, should be copied too.
+ * @param <Child> the type of the children.
+ */
+public class GenerationIterator<Child> implements Iterator<List<Child>> {
+
+    private final ToIntFunction<Child> childScorer;
+    private final GeneticAlgorithm.GenerationStep<Child> step;
+    private final GeneticAlgorithm.Settings settings;
+
+    private List<Child> generation, spare;
+    private int[] scores;
+    private int generationNumber;
+    private boolean started = false;
+
+    /**
+     * @param generation the first generation to return.
+     * @param generationNumber the number of the first generation.
+     */
+    GenerationIterator(List<Child> generation, int generationNumber, ToIntFunction<Child> childScorer,
+                       GeneticAlgorithm.GenerationStep<Child> step, GeneticAlgorithm.Settings settings) {
+        this.generation = generation;
+        this.generationNumber = generationNumber;
+        this.childScorer = childScorer;
+        this.step = step;
+        this.settings = settings;
+    }
+
+    /**
+     * @return true, since there is always a next generation.
+     */
+    public boolean hasNext() {return true;}
+
+    /**
+     * @return the first generation the first time, and after that a new generation made from the one returned before.
+     */
+    public List<Child> next() {
+        if(!started) {
+            started = true;
+            return generation;
+        }
+        List<Child> next = step.makeGeneration(generation, scores, settings.isInPlace() ? spare : null);
+        spare = generation;
+        generation = next;
+        scores = null;
+        generationNumber++;
+        return generation;
+    }
+
+    private List<Child> getGeneration() {
+        if(!started)
+            throw new IllegalStateException("No generation has been returned yet.");
+        return generation;
+    }
+
+    /**
+     * @return the number of the generation returned last, counted like the generations of a run,
+     * so a generation made from random genes is 1 and a generation that was passed in is 0.
+     */
+    public int getGenerationNumber() {
+        getGeneration();
+        return generationNumber;
+    }
+
+    /**
+     * @return the score of each child of the generation returned last, which are used to make the next generation too.
+     */
+    public int[] getScores() {
+        if(scores == null)
+            scores = GeneticAlgorithm.getScores(getGeneration(), childScorer, settings);
+        return scores.clone();
+    }
+
+    /**
+     * @param index the index of a child of the generation returned last.
+     * @return the score of that child.
+     */
+    public int getScore(int index) {
+        if(scores == null)
+            getScores();
+        return scores[index];
+    }
+
+    /**
+     * @return the child of the generation returned last with the highest score.
+     */
+    public Child getBestChild() {
+        if(scores == null)
+            getScores();
+        int best = 0;
+        for(int i = 1; i < scores.length; i++)
+            if(scores[i] > scores[best])
+                best = i;
+        return generation.get(best);
+    }
+
+    /**
+     * The stream goes on forever, so it should be cut short, for example with {@link Stream#limit} or {@link Stream#takeWhile}.
+     * This iterator can still be used while the stream runs, to get the scores of the generation the stream is on.
+     * @return a sequential stream of the generations this iterator makes.
+     */
+    public Stream<List<Child>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public String toString() {
+        return "[" + (started ? generationNumber : "-") + "," + generation.size() + "]";
+    }
+
+}
@@ -1,16 +1,26 @@
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.AbstractMap.SimpleEntry;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class GeneticAlgorithm {
-    
-    private static final Random random = new Random();
+
+    // The number of packings a knapsack problem sums at a time, each block on one thread of the pool.
+    private static final int SCORE_BLOCK_SIZE = 64;
 
     /**
      * @param <Type> the object type of the genes.
@@ -26,7 +36,26 @@ public class GeneticAlgorithm {
      */
     public static <Type> List<Type>       getBestChildAfterGenerations  (int generationAmount, int generationSize, int parentAmount, int childSize,
                                                                          Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer) {
-        return getBestChild(makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer), childScorer);
+        return getBestChildAfterGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the first generation of children and used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best child after a specified number of generations.
+     */
+    public static <Type> List<Type>       getBestChildAfterGenerations  (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
+        return getBestChild(makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer, settings), childScorer, settings);
     }
 
     /**
@@ -43,8 +72,27 @@ public class GeneticAlgorithm {
      */
     public static <Type> List<List<Type>> makeGenerations               (int generationAmount, int generationSize, int parentAmount, int childSize,
                                                                          Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer) {
-        List<List<Type>> generation = makeGenerationFromSupplier(generationSize, childSize, geneSupplier);
-        generation = makeGenerationsFromGeneration(generation, generationAmount - 1, generation.size(), parentAmount, geneSupplier, childScorer);
+        return makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the first generation of children and used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return a new generation after a specified number of generations.
+     */
+    public static <Type> List<List<Type>> makeGenerations               (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
+        List<List<Type>> generation = makeGenerationFromSupplier(generationSize, childSize, geneSupplier, settings);
+        generation = makeGenerationsFromGeneration(generation, generationAmount - 1, generation.size(), parentAmount, geneSupplier, childScorer, settings);
         return generation;
     }
 
@@ -62,11 +110,172 @@ public class GeneticAlgorithm {
      */
     public static <Type> List<List<Type>> makeGenerationsFromGeneration (List<List<Type>> generation, int generationAmount, int generationSize, int parentAmount,
                                                                          Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer) {
-        for(int i = 0; i < generationAmount; i++)
-            generation = makeGenerationFromGeneration(generation, generationSize, parentAmount, geneSupplier, childScorer);
+        return makeGenerationsFromGeneration(generation, generationAmount, generationSize, parentAmount, geneSupplier, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm, which can make the generations {@link Settings#setInPlace in place}.
+     * @return a new generation from a previous generation after a specified number of generations.
+     */
+    public static <Type> List<List<Type>> makeGenerationsFromGeneration (List<List<Type>> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
+        List<List<Type>> spare = null;
+        for(int i = 0; i < generationAmount; i++) {
+            List<List<Type>> next = makeGenerationFromGeneration(generation, null, settings.isInPlace() ? spare : null, generationSize, parentAmount,
+                                                                 geneSupplier, childScorer, settings);
+            spare = generation;
+            generation = next;
+        }
         return generation;
     }
 
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the first generation of children and used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static <Type> RunResult<List<Type>> makeGenerations          (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Termination termination, Settings settings) {
+        return makeGenerations(generationAmount, generationSize, parentAmount, childSize, geneSupplier, childScorer, termination, null, settings);
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the first generation of children and used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param listener the listener to tell about every generation as it is scored, or null.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static <Type> RunResult<List<Type>> makeGenerations          (int generationAmount, int generationSize, int parentAmount, int childSize,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Termination termination, GenerationListener<? super List<Type>> listener,
+                                                                         Settings settings) {
+        long startTime = System.nanoTime();
+        List<List<Type>> generation = makeGenerationFromSupplier(generationSize, childSize, geneSupplier, settings);
+        return makeGenerationsUntil(generation, 1, generationAmount, startTime, asIntScorer(childScorer), ArrayList<Type>::new, GeneticAlgorithm::getDiversity,
+                                    GeneticAlgorithm::packChild,
+                                    (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                               geneSupplier, childScorer, settings),
+                                    termination, listener, settings);
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static <Type> RunResult<List<Type>> makeGenerationsFromGeneration(List<List<Type>> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Termination termination, Settings settings) {
+        return makeGenerationsFromGeneration(generation, generationAmount, generationSize, parentAmount, geneSupplier, childScorer, termination, null, settings);
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the previous generation of which to make the new one.
+     * @param generationAmount the largest number of generations to iterate through.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param termination the criteria that can stop the run before it has made all the generations.
+     * @param listener the listener to tell about every generation as it is scored, starting with the one given, or null.
+     * @param settings the settings of the algorithm.
+     * @return the last generation, the best child, the statistics of every generation, and why and after how many generations the run stopped.
+     */
+    public static <Type> RunResult<List<Type>> makeGenerationsFromGeneration(List<List<Type>> generation, int generationAmount, int generationSize, int parentAmount,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Termination termination, GenerationListener<? super List<Type>> listener,
+                                                                         Settings settings) {
+        return makeGenerationsUntil(generation, 0, generationAmount, System.nanoTime(), asIntScorer(childScorer), ArrayList<Type>::new, GeneticAlgorithm::getDiversity,
+                                    GeneticAlgorithm::packChild,
+                                    (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                               geneSupplier, childScorer, settings),
+                                    termination, listener, settings);
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the first generation of children and used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return an iterator that makes a new generation every time it is asked for one, starting with a generation made from the gene supplier.
+     */
+    public static <Type> GenerationIterator<List<Type>> iterateGenerations(int generationSize, int parentAmount, int childSize,
+                                                                           Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                           Settings settings) {
+        List<List<Type>> generation = makeGenerationFromSupplier(generationSize, childSize, geneSupplier, settings);
+        return new GenerationIterator<List<Type>>(generation, 1, asIntScorer(childScorer),
+                                                  (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                                             geneSupplier, childScorer, settings),
+                                                  settings);
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the generation the iterator starts with, of which the next one is made.
+     * @param generationSize the number of children within each generation.
+     * @param parentAmount the number of children used as parents for the next generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return an iterator that makes a new generation every time it is asked for one, starting with the generation given.
+     */
+    public static <Type> GenerationIterator<List<Type>> iterateGenerationsFromGeneration(List<List<Type>> generation, int generationSize, int parentAmount,
+                                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                                         Settings settings) {
+        return new GenerationIterator<List<Type>>(generation, 0, asIntScorer(childScorer),
+                                                  (previous, scores, buffer) -> makeGenerationFromGeneration(previous, scores, buffer, generationSize, parentAmount,
+                                                                                                             geneSupplier, childScorer, settings),
+                                                  settings);
+    }
+
     /**
      * @param <Type> the object type of the genes.
      * @param generationSize the number of children within the generation.
@@ -81,6 +290,29 @@ public class GeneticAlgorithm {
                      .collect(Collectors.toList());
     }
 
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationSize the number of children within the generation.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make the children.
+     * @param settings the settings of the algorithm, whose random source seeds the stream each child is made with.
+     * Its mutator {@link Mutator#prepare prepares} each child, which repairs it if the mutator is {@link Mutator.Repairing repairing}.
+     * @return a new generation made from the gene supplier.
+     */
+    public static <Type> List<List<Type>> makeGenerationFromSupplier    (int generationSize, int childSize, Supplier<Type> geneSupplier, Settings settings) {
+        if(generationSize < 1)
+            throw new IllegalArgumentException("generationSize was " + generationSize + " but cannot be less than 1.");
+        List<List<Type>> generation = new ArrayList<List<Type>>(Collections.nCopies(generationSize, null));
+        Mutator mutator = settings.getMutator();
+        forEachIndex(generationSize, settings.getRandomSource().nextSeed(), i -> {
+            List<Type> child = makeChildFromSupplier(childSize, geneSupplier);
+            mutator.prepare(child);
+            generation.set(i, child);
+        }, settings);
+        return generation;
+    }
+
     /**
      * @param <Type> the object type of the genes.
      * @param generation the previous generation of which to make the new one.
@@ -94,9 +326,60 @@ public class GeneticAlgorithm {
      */
     public static <Type> List<List<Type>> makeGenerationFromGeneration  (List<List<Type>> generation, int generationSize, int parentAmount,
                                                                          Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer) {
-        return makeGenerationFromParents(getBestChildren(generation, parentAmount, childScorer),
-                                         generationSize,
-                                         geneSupplier);
+        return makeGenerationFromGeneration(generation, generationSize, parentAmount, geneSupplier, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the previous generation of which to make the new one.
+     * @param generationSize the number of children within the generation.
+     * @param parentAmount the amount of children used as parents for the new generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return a new generation made from the previous generation.
+     */
+    public static <Type> List<List<Type>> makeGenerationFromGeneration  (List<List<Type>> generation, int generationSize, int parentAmount,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
+        return makeGenerationFromGeneration(generation, null, null, generationSize, parentAmount, geneSupplier, childScorer, settings);
+    }
+
+    /**
+     * @param scores the score of each child of the generation, or null to score them.
+     * @param buffer a generation whose children are written over with the new children, or null to make new children.
+     */
+    private static <Type> List<List<Type>> makeGenerationFromGeneration (List<List<Type>> generation, int[] scores, List<List<Type>> buffer,
+                                                                         int generationSize, int parentAmount,
+                                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
+        Metrics metrics = settings.getMetrics();
+        long startTime = metrics == null ? 0 : System.nanoTime(),
+             startAllocated = metrics == null ? 0 : Metrics.getThreadAllocatedBytes(),
+             scoredTime = startTime;
+        long generationSeed = settings.getRandomSource().nextSeed();
+        List<List<Type>> parents;
+        RandomGenerator previous = RandomSource.setCurrent(RandomSource.forIndex(generationSeed, -1)); //The children use the indices from 0 and up.
+        try {
+            if(scores == null) {
+                scores = getScores(generation, asIntScorer(childScorer), settings);
+                scoredTime = metrics == null ? 0 : System.nanoTime();
+            }
+            parents = selectParents(generation, scores, parentAmount, settings);
+        } finally {
+            RandomSource.setCurrent(previous);
+        }
+        long selectedTime = metrics == null ? 0 : System.nanoTime();
+        int eliteAmount = Math.min(settings.getSelector().getEliteAmount(), Math.min(parents.size(), generationSize));
+        List<List<Type>> newGeneration = makeGenerationFromParents(parents, eliteAmount, buffer, generationSize, geneSupplier, settings, generationSeed);
+        if(metrics != null) {
+            long endTime = System.nanoTime();
+            metrics.recordGeneration(scoredTime - startTime, selectedTime - scoredTime, endTime - selectedTime, endTime - startTime,
+                                     startAllocated < 0 ? -1 : Metrics.getThreadAllocatedBytes() - startAllocated, generationSize);
+        }
+        return newGeneration;
     }
 
     /**
@@ -108,12 +391,48 @@ public class GeneticAlgorithm {
      * @return a mutated generation made from the parents.
      */
     public static <Type> List<List<Type>> makeGenerationFromParents     (List<List<Type>> parents, int generationSize, Supplier<Type> geneSupplier) {
+        return makeGenerationFromParents(parents, generationSize, geneSupplier, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param parents the parents of which to make the generation.
+     * @param generationSize the number of children within the generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param settings the settings of the algorithm, whose crossover combines the parents.
+     * @return a mutated generation made from the parents.
+     */
+    public static <Type> List<List<Type>> makeGenerationFromParents     (List<List<Type>> parents, int generationSize, Supplier<Type> geneSupplier,
+                                                                         Settings settings) {
+        return makeGenerationFromParents(parents, 0, null, generationSize, geneSupplier, settings, settings.getRandomSource().nextSeed());
+    }
+
+    /**
+     * Writes the children over those of the buffer if it has the right size, which gives the same children as making new ones
+     * since the crossover writes every gene of the child.
+     * @param eliteAmount the number of first parents that are copied into the first children unchanged.
+     */
+    private static <Type> List<List<Type>> makeGenerationFromParents    (List<List<Type>> parents, int eliteAmount, List<List<Type>> buffer, int generationSize,
+                                                                         Supplier<Type> geneSupplier, Settings settings, long generationSeed) {
         if(generationSize < 1)
             throw new IllegalArgumentException("generationSize was " + generationSize + " but cannot be less than 1.");
-        return makeMutatedGeneration(Stream.generate(() ->  GeneticAlgorithm.makeChildFromParents(parents))
-                                           .limit(generationSize)
-                                           .collect(Collectors.toList()),
-                                     geneSupplier);
+        int childSize = parents.get(0).size();
+        boolean reuse = buffer != null && buffer.size() == generationSize;
+        List<List<Type>> generation = reuse ? buffer : new ArrayList<List<Type>>(Collections.nCopies(generationSize, null));
+        forEachIndex(generationSize, generationSeed, i -> {
+            if(i < eliteAmount) {
+                generation.set(i, new ArrayList<Type>(parents.get(i)));
+                return;
+            }
+            List<Type> child = generation.get(i);
+            if(child != null && child.size() == childSize)
+                settings.getCrossover().cross(parents, child, RandomSource.current());
+            else
+                generation.set(i, child = makeChildFromParents(parents, settings));
+            settings.getMutator().mutate(child, i, generationSize, geneSupplier, RandomSource.current()); //The child is not a parent, so it can be mutated in place.
+        }, settings);
+        return generation;
     }
     
     /**
@@ -137,9 +456,19 @@ public class GeneticAlgorithm {
      * @return a child made from randomly picking genes from the parents.
      */
     public static <Type> List<Type>       makeChildFromParents          (List<List<Type>> parents) {
-        return IntStream.range(0, parents.get(0).size())
-                        .mapToObj(i -> parents.get(random.nextInt(parents.size())).get(i))
-                        .collect(Collectors.toList());
+        return makeChildFromParents(parents, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param parents the parents of which to make the child.
+     * @param settings the settings of the algorithm, whose crossover combines the parents.
+     * @return a child made from combining the genes of the parents.
+     */
+    public static <Type> List<Type>       makeChildFromParents          (List<List<Type>> parents, Settings settings) {
+        List<Type> child = new ArrayList<Type>(parents.get(0));
+        settings.getCrossover().cross(parents, child, RandomSource.current());
+        return child;
     }
 
     /**
@@ -156,10 +485,32 @@ public class GeneticAlgorithm {
         if(mutateAmount > child.size())
             throw new IllegalArgumentException("mutateAmount was " + mutateAmount + " but cannot be larger than childSize which was " + child.size() + ".");
         List<Type> newChild = new ArrayList<Type>(child);
-        random.ints(0, Backpack.getItemSizeFull())
-              .distinct()
-              .limit(mutateAmount)
-              .forEach(i -> newChild.set(i, geneSupplier.get()));
+        RandomGenerator random = RandomSource.current();
+        BitSet mutated = new BitSet(child.size());
+        for(int j = child.size() - mutateAmount; j < child.size(); j++) { //Floyd's algorithm for picking distinct genes.
+            int i = random.nextInt(j + 1);
+            if(mutated.get(i))
+                i = j;
+            mutated.set(i);
+            newChild.set(i, geneSupplier.get());
+        }
+        return newChild;
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param child the child of which to make the mutated child.
+     * @param index the index of the child within its generation.
+     * @param generationSize the number of children within the generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the child.
+     * @param settings the settings of the algorithm, whose mutator mutates the child.
+     * @return a mutated variant of the child.
+     */
+    public static <Type> List<Type>       makeMutatedChild              (List<Type> child, int index, int generationSize, Supplier<Type> geneSupplier,
+                                                                         Settings settings) {
+        List<Type> newChild = new ArrayList<Type>(child);
+        settings.getMutator().mutate(newChild, index, generationSize, geneSupplier, RandomSource.current());
         return newChild;
     }
 
@@ -171,13 +522,22 @@ public class GeneticAlgorithm {
      * @return a mutated variation of the generation.
      */
     public static <Type> List<List<Type>> makeMutatedGeneration         (List<List<Type>> generation, Supplier<Type> geneSupplier) {
-        return IntStream.range(0, generation.size())
-                        .mapToObj(i -> makeMutatedChild(
-                                           generation.get(i),
-                                           (int)((float)Backpack.getItemSizeFull() / generation.size() / 2 * i),
-                                           geneSupplier
-                                       ))
-                        .collect(Collectors.toList());
+        return makeMutatedGeneration(generation, geneSupplier, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the generation of which to make the mutated generation.
+     * @param geneSupplier a function that supplies random genes,
+     * which is used to make mutations within the children.
+     * @param settings the settings of the algorithm, whose mutator mutates the children.
+     * @return a mutated variation of the generation.
+     */
+    public static <Type> List<List<Type>> makeMutatedGeneration         (List<List<Type>> generation, Supplier<Type> geneSupplier, Settings settings) {
+        List<List<Type>> mutatedGeneration = new ArrayList<List<Type>>(generation.size());
+        for(int i = 0; i < generation.size(); i++)
+            mutatedGeneration.add(makeMutatedChild(generation.get(i), i, generation.size(), geneSupplier, settings));
+        return mutatedGeneration;
     }
 
     /**
@@ -188,11 +548,24 @@ public class GeneticAlgorithm {
      * @return the best child from the generation.
      */
     public static <Type> List<Type>       getBestChild                  (List<List<Type>> generation, Function<List<Type>, Integer> childScorer) {
-        return generation.stream()
-                         .map(a -> new SimpleEntry<List<Type>, Integer>(a, childScorer.apply(a)))
-                         .max((a, b) -> a.getValue() - b.getValue())
-                         .get()
-                         .getKey();
+        return getBestChild(generation, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the generation from which to get the best child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best child from the generation.
+     */
+    public static <Type> List<Type>       getBestChild                  (List<List<Type>> generation, Function<List<Type>, Integer> childScorer, Settings settings) {
+        int[] scores = getScores(generation, asIntScorer(childScorer), settings);
+        int best = 0;
+        for(int i = 1; i < scores.length; i++)
+            if(scores[i] > scores[best])
+                best = i;
+        return generation.get(best);
     }
 
     /**
@@ -204,16 +577,545 @@ public class GeneticAlgorithm {
      * @return the best children from the generation.
      */
     public static <Type> List<List<Type>> getBestChildren               (List<List<Type>> generation, int childrenAmount, Function<List<Type>, Integer> childScorer) {
+        return getBestChildren(generation, childrenAmount, childScorer, new Settings());
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generation the generation from which to get the best children.
+     * @param childrenAmount the number of children to get.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm.
+     * @return the best children from the generation.
+     */
+    public static <Type> List<List<Type>> getBestChildren               (List<List<Type>> generation, int childrenAmount, Function<List<Type>, Integer> childScorer,
+                                                                         Settings settings) {
         if(childrenAmount < 1)
             throw new IllegalArgumentException("childrenAmount was " + childrenAmount + " but cannot be less than 1.");
         if(childrenAmount > generation.size())
             throw new IllegalArgumentException("childrenAmount was " + childrenAmount + " but cannot be larger than generationSize which was " + generation.size() + ".");
-        return generation.stream()
-                         .map(a -> new SimpleEntry<List<Type>, Integer>(a, childScorer.apply(a)))
-                         .sorted((a, b) -> b.getValue() - a.getValue()) //Reversed because we want the highest scores first.
-                         .limit(childrenAmount)
-                         .map(a -> a.getKey())
-                         .collect(Collectors.toList());
+        int[] bestIndices = getBestIndices(getScores(generation, asIntScorer(childScorer), settings), childrenAmount);
+        List<List<Type>> bestChildren = new ArrayList<List<Type>>(childrenAmount);
+        for(int i : bestIndices)
+            bestChildren.add(generation.get(i));
+        return bestChildren;
+    }
+
+    /**
+     * @param <Child> the type of the children.
+     * @param generation the generation from which to select the parents.
+     * @param parentAmount the number of parents to select.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to compare it to other children.
+     * @param settings the settings of the algorithm, whose selector picks the parents.
+     * @return the parents selected from the generation.
+     */
+    public static <Child> List<Child>     selectParents                 (List<Child> generation, int parentAmount, ToIntFunction<Child> childScorer,
+                                                                         Settings settings) {
+        if(parentAmount < 1)
+            throw new IllegalArgumentException("parentAmount was " + parentAmount + " but cannot be less than 1.");
+        return selectParents(generation, getScores(generation, childScorer, settings), parentAmount, settings);
+    }
+
+    /**
+     * @param <Child> the type of the children.
+     * @param generation the generation from which to select the parents.
+     * @param scores the score of each child of the generation.
+     * @param parentAmount the number of parents to select.
+     * @param settings the settings of the algorithm, whose selector picks the parents.
+     * @return the parents selected from the generation.
+     */
+    public static <Child> List<Child>     selectParents                 (List<Child> generation, int[] scores, int parentAmount, Settings settings) {
+        if(parentAmount < 1)
+            throw new IllegalArgumentException("parentAmount was " + parentAmount + " but cannot be less than 1.");
+        if(parentAmount > generation.size())
+            throw new IllegalArgumentException("parentAmount was " + parentAmount + " but cannot be larger than generationSize which was " + generation.size() + ".");
+        int[] selected = settings.getSelector().select(scores, parentAmount, RandomSource.current());
+        List<Child> parents = new ArrayList<Child>(selected.length);
+        for(int i : selected)
+            parents.add(generation.get(i));
+        return parents;
+    }
+
+    /**
+     * Keeps the best indices in a heap of the given size, so the whole generation never has to be sorted.
+     * Children with the same score are ordered by their index, like a stable sort would.
+     * @param scores the score of each child.
+     * @param amount the number of indices to get.
+     * @return the indices of the highest scores, with the highest score first.
+     */
+    public static int[]                   getBestIndices                (int[] scores, int amount) {
+        if(amount < 1)
+            throw new IllegalArgumentException("amount was " + amount + " but cannot be less than 1.");
+        if(amount > scores.length)
+            throw new IllegalArgumentException("amount was " + amount + " but cannot be larger than the number of scores which was " + scores.length + ".");
+        int[] heap = new int[amount]; //The worst of the kept indices is at the top.
+        for(int i = 0; i < amount; i++)
+            siftUp(heap, i, i, scores);
+        for(int i = amount; i < scores.length; i++) {
+            if(isWorse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, 0, amount, scores);
+            }
+        }
+        for(int size = amount - 1; size > 0; size--) { //Moves the worst to the back until the heap is sorted from best to worst.
+            int worst = heap[0];
+            heap[0] = heap[size];
+            siftDown(heap, 0, size, scores);
+            heap[size] = worst;
+        }
+        return heap;
+    }
+
+    private static boolean isWorse(int a, int b, int[] scores) {
+        return scores[a] != scores[b] ? scores[a] < scores[b] : a > b;
+    }
+
+    private static void siftUp(int[] heap, int position, int index, int[] scores) {
+        while(position > 0) {
+            int parent = (position - 1) >>> 1;
+            if(!isWorse(index, heap[parent], scores))
+                break;
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = index;
+    }
+
+    private static void siftDown(int[] heap, int position, int size, int[] scores) {
+        int index = heap[position];
+        while(true) {
+            int child = 2 * position + 1;
+            if(child >= size)
+                break;
+            if(child + 1 < size && isWorse(heap[child + 1], heap[child], scores))
+                child++;
+            if(!isWorse(heap[child], index, scores))
+                break;
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+
+    /**
+     * Scores the children in parallel if the settings allow it. The scores are the same either way.
+     * A {@link KnapsackProblem} scores its packings {@link #scoreBlocks a block at a time}, which uses the vector API if it can.
+     * With metrics, only the children the scorer really works out are counted as scorer calls, leaving out scores looked up in a
+     * {@link FitnessCache} and scores a {@link DeltaScorer} gets from totals carried over from a parent.
+     * @param <Child> the type of the children.
+     * @param generation the generation to score.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness.
+     * @param settings the settings of the algorithm.
+     * @return the score of each child, in the same order as the generation.
+     */
+    public static <Child> int[]           getScores                     (List<Child> generation, ToIntFunction<Child> childScorer, Settings settings) {
+        Metrics metrics = settings.getMetrics();
+        int[] scores = new int[generation.size()];
+        if(childScorer instanceof KnapsackProblem) {
+            long startTime = metrics == null ? 0 : System.nanoTime();
+            @SuppressWarnings("unchecked") //A knapsack problem only scores packings, so the children are packings.
+            long calls = scoreBlocks((List<BitGenome>) generation, (KnapsackProblem) childScorer, scores, settings);
+            if(metrics != null)
+                metrics.recordScoring(System.nanoTime() - startTime, calls);
+            return scores;
+        }
+        if(metrics == null) {
+            forEachIndex(generation.size(), i -> scores[i] = childScorer.applyAsInt(generation.get(i)), settings);
+            return scores;
+        }
+        long startTime = System.nanoTime();
+        FitnessCache<?> cache = childScorer instanceof FitnessCache ? (FitnessCache<?>) childScorer : null;
+        long missesBefore = cache == null ? 0 : cache.getMisses();
+        ToIntFunction<?> scorer = cache == null ? childScorer : cache.getChildScorer();
+        if(scorer instanceof DeltaScorer) {
+            DeltaScorer deltaScorer = (DeltaScorer) scorer;
+            LongAdder calls = new LongAdder();
+            forEachIndex(generation.size(), i -> {
+                Child child = generation.get(i);
+                boolean hadTotals = !(child instanceof BitGenome) || ((BitGenome) child).getTotals(deltaScorer) != null;
+                scores[i] = childScorer.applyAsInt(child);
+                if(!hadTotals && ((BitGenome) child).getTotals(deltaScorer) != null)
+                    calls.increment();
+            }, settings);
+            metrics.recordScoring(System.nanoTime() - startTime, calls.sum());
+        }
+        else {
+            forEachIndex(generation.size(), i -> scores[i] = childScorer.applyAsInt(generation.get(i)), settings);
+            metrics.recordScoring(System.nanoTime() - startTime, cache == null ? generation.size() : cache.getMisses() - missesBefore);
+        }
+        return scores;
+    }
+
+    /**
+     * Scores the packings that carry their weight and price from a parent by those, which only costs the items that changed.
+     * The others are summed a block at a time by the {@link KnapsackProblem#getBlockScorer() block scorer} of the problem,
+     * and carry their sums afterwards, so their children can carry them on.
+     * @return the number of packings that were summed from all their items.
+     */
+    private static long                   scoreBlocks                   (List<BitGenome> generation, KnapsackProblem problem, int[] scores, Settings settings) {
+        BlockScorer blockScorer = problem.getBlockScorer();
+        LongAdder summed = new LongAdder();
+        forEachIndex((generation.size() + SCORE_BLOCK_SIZE - 1) / SCORE_BLOCK_SIZE, b -> {
+            int from = b * SCORE_BLOCK_SIZE, to = Math.min(from + SCORE_BLOCK_SIZE, generation.size());
+            List<BitGenome> block = new ArrayList<BitGenome>(to - from);
+            int[] indices = new int[to - from];
+            for(int i = from; i < to; i++) {
+                int[] totals = generation.get(i).getTotals(problem);
+                if(totals != null)
+                    scores[i] = problem.score(totals);
+                else {
+                    indices[block.size()] = i;
+                    block.add(generation.get(i));
+                }
+            }
+            int[] weightSums = new int[block.size()], priceSums = new int[block.size()];
+            blockScorer.sumBlock(block, 0, block.size(), weightSums, priceSums);
+            for(int k = 0; k < block.size(); k++) {
+                int[] totals = {weightSums[k], priceSums[k]};
+                block.get(k).setTotals(problem, totals);
+                scores[indices[k]] = problem.score(totals);
+            }
+            summed.add(block.size());
+        }, settings);
+        return summed.sum();
+    }
+
+    /**
+     * Hands a fitness cache on as it is, so the metrics can see which scores it looked up instead of working them out.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Child> ToIntFunction<Child> asIntScorer(Function<Child, Integer> childScorer) {
+        if(childScorer instanceof FitnessCache)
+            return (FitnessCache<Child>) childScorer; //A cache is a function and a scorer of the same children.
+        return childScorer::apply;
+    }
+
+    /**
+     * The mean fraction of genes that a sample of the children differ from the best child in, where 0 means every sampled child is the same as it.
+     * @param <Type> the object type of the genes.
+     * @param generation the generation to get the diversity of.
+     * @param bestChild the best child of the generation.
+     * @return the diversity of the generation, between 0 and 1.
+     */
+    public static <Type> double           getDiversity                  (List<List<Type>> generation, List<Type> bestChild) {
+        return getDiversity(generation, bestChild, GeneticAlgorithm::getDistance, bestChild.size());
+    }
+
+    private static <Type> int getDistance(List<Type> a, List<Type> b) {
+        int distance = 0;
+        for(int i = 0; i < a.size(); i++)
+            if(!Objects.equals(a.get(i), b.get(i)))
+                distance++;
+        return distance;
+    }
+
+    /**
+     * The largest number of children compared to the best child when finding the diversity of a generation.
+     */
+    static final int DIVERSITY_SAMPLE_SIZE = 64;
+
+    /**
+     * Compares children spread evenly over the generation, so the diversity is the same every time for the same generation.
+     */
+    static <Child> double getDiversity(List<Child> generation, Child bestChild, ToIntBiFunction<Child, Child> distance, int childSize) {
+        int sampleSize = Math.min(DIVERSITY_SAMPLE_SIZE, generation.size());
+        long total = 0;
+        for(int s = 0; s < sampleSize; s++)
+            total += distance.applyAsInt(generation.get((int) ((long) s * generation.size() / sampleSize)), bestChild);
+        return (double) total / ((long) sampleSize * childSize);
+    }
+
+    /**
+     * @param child a child whose genes should all be booleans.
+     * @return the genes of the child packed into a bit genome.
+     */
+    private static <Type> BitGenome packChild(List<Type> child) {
+        BitGenome genome = new BitGenome(child.size());
+        for(int i = 0; i < child.size(); i++) {
+            if(!(child.get(i) instanceof Boolean))
+                throw new IllegalStateException("Only children of boolean genes can be saved in a checkpoint, but gene " + i + " was " + child.get(i) + ".");
+            genome.set(i, (Boolean) child.get(i));
+        }
+        return genome;
+    }
+
+    /**
+     * Is told about every generation of a run as soon as it has been scored, on the thread making the run,
+     * for example to show the progress of a long run or to stop it from another thread.
+     * @param <Child> the type of the children.
+     */
+    @FunctionalInterface
+    public interface GenerationListener<Child> {
+
+        /**
+         * @param generationNumber the number of the generation, counted like in the statistics of the run.
+         * @param scores the score of each child of the generation, which are not changed afterwards.
+         * @param bestChild a copy of the best child of the run so far, which is not changed afterwards.
+         * @param bestScore the score of the best child of the run so far.
+         * @return whether the run should go on, where false stops it after this generation with {@link Termination.StopReason#STOPPED}.
+         */
+        boolean generationMade(int generationNumber, int[] scores, Child bestChild, int bestScore);
+
+    }
+
+    /**
+     * Makes the next generation from the previous one.
+     */
+    interface GenerationStep<Child> {
+
+        /**
+         * @param generation the previous generation.
+         * @param scores the score of each child of the previous generation.
+         * @param buffer a generation whose children can be written over, or null.
+         * @return the next generation.
+         */
+        List<Child> makeGeneration(List<Child> generation, int[] scores, List<Child> buffer);
+
+    }
+
+    /**
+     * Makes generations with the step until the termination says to stop. Every generation is scored once,
+     * and the scores are used for the statistics, the termination and by the step to select the parents without scoring again.
+     * @param generationNumber the number of generations that have already been made, including the one given.
+     * @param startTime the time the run started, from {@link System#nanoTime()}.
+     * @param childPacker a function that packs the genes of a child for a checkpoint.
+     * @param listener the listener to tell about every generation, or null.
+     */
+    static <Child> RunResult<Child> makeGenerationsUntil(List<Child> generation, int generationNumber, int generationAmount, long startTime,
+                                                         ToIntFunction<Child> childScorer, UnaryOperator<Child> childCopier,
+                                                         ToDoubleBiFunction<List<Child>, Child> diversity, Function<Child, BitGenome> childPacker,
+                                                         GenerationStep<Child> step, Termination termination, GenerationListener<? super Child> listener,
+                                                         Settings settings) {
+        RunStatistics statistics = new RunStatistics();
+        List<Child> spare = null;
+        Child bestChild = null;
+        int bestScore = Integer.MIN_VALUE, bestGenerationNumber = generationNumber;
+        while(true) {
+            int[] scores = getScores(generation, childScorer, settings);
+            int best = 0;
+            for(int i = 1; i < scores.length; i++)
+                if(scores[i] > scores[best])
+                    best = i;
+            if(bestChild == null || scores[best] > bestScore) {
+                bestChild = childCopier.apply(generation.get(best)); //Copied, since the child may be written over when in place.
+                bestScore = scores[best];
+                bestGenerationNumber = generationNumber;
+            }
+            int diversityInterval = settings.getDiversityInterval();
+            List<Child> current = generation;
+            Child generationBest = generation.get(best);
+            double generationDiversity = diversityInterval > 0 && generationNumber % diversityInterval == 0
+                                       ? diversity.applyAsDouble(current, generationBest) : Double.NaN;
+            long elapsedTime = System.nanoTime() - startTime;
+            statistics.addGeneration(scores, generationDiversity, elapsedTime);
+            boolean goOn = listener == null || listener.generationMade(generationNumber, scores, bestChild, bestScore);
+            Termination.StopReason stopReason = termination.check(generationNumber, generationAmount, bestScore, bestGenerationNumber, elapsedTime,
+                                                                  Double.isNaN(generationDiversity) ? () -> diversity.applyAsDouble(current, generationBest)
+                                                                                                    : () -> generationDiversity);
+            if(stopReason == null && !goOn)
+                stopReason = Termination.StopReason.STOPPED;
+            Checkpoint.Writer checkpointWriter = settings.getCheckpointWriter();
+            if(checkpointWriter != null && (stopReason != null || checkpointWriter.isDue(generationNumber))) {
+                List<BitGenome> packed = new ArrayList<BitGenome>(generation.size());
+                for(Child child : generation)
+                    packed.add(childPacker.apply(child));
+                checkpointWriter.write(new Checkpoint(packed, scores, settings.getRandomSource(), generationNumber));
+            }
+            if(stopReason != null)
+                return new RunResult<Child>(generation, scores, bestChild, bestScore, statistics, stopReason, generationNumber, elapsedTime);
+            List<Child> next = step.makeGeneration(generation, scores, settings.isInPlace() ? spare : null);
+            spare = generation;
+            generation = next;
+            generationNumber++;
+        }
+    }
+
+    /**
+     * Runs the action for every index with the random stream of that index as the current stream of the thread,
+     * so the result does not depend on which thread runs which index.
+     */
+    static void forEachIndex(int amount, long seed, IntConsumer action, Settings settings) {
+        forEachIndex(amount, i -> {
+            RandomGenerator previous = RandomSource.setCurrent(RandomSource.forIndex(seed, i));
+            try {
+                action.accept(i);
+            } finally {
+                RandomSource.setCurrent(previous);
+            }
+        }, settings);
+    }
+
+    /**
+     * Runs the action for every index, spread across the pool of the settings if it is parallel.
+     */
+    static void forEachIndex(int amount, IntConsumer action, Settings settings) {
+        if(settings.isParallel() && amount > 1)
+            settings.getPool().submit(() -> IntStream.range(0, amount).parallel().forEach(action)).join();
+        else
+            for(int i = 0; i < amount; i++)
+                action.accept(i);
+    }
+
+    public static class Settings {
+
+        private int parallelism = 1;
+        private ForkJoinPool pool;
+        private boolean ownsPool = false; //Whether the pool was made by getPool, so these settings shut it down when it is replaced.
+        private Selector selector = new Selector.Truncation();
+        private Crossover crossover = new Crossover.Uniform();
+        private Mutator mutator = new Mutator.Ramp(0.5);
+        private RandomSource randomSource = new RandomSource();
+        private boolean inPlace = false;
+        private int diversityInterval = 0;
+        private Metrics metrics = null;
+        private Checkpoint.Writer checkpointWriter = null;
+
+        public Settings() {}
+
+        /**
+         * The copy shares the selector, crossover, mutator and random source of the settings until they are set again,
+         * and a pool set with {@link #setPool}. A pool the settings made from their parallelism is not shared, so the copy makes its own.
+         * @param settings the settings to copy.
+         */
+        public Settings(Settings settings) {
+            synchronized(settings) {
+                this.parallelism = settings.parallelism;
+                this.pool = settings.ownsPool ? null : settings.pool;
+            }
+            this.selector = settings.selector;
+            this.crossover = settings.crossover;
+            this.mutator = settings.mutator;
+            this.randomSource = settings.randomSource;
+            this.inPlace = settings.inPlace;
+            this.diversityInterval = settings.diversityInterval;
+            this.metrics = settings.metrics;
+            this.checkpointWriter = settings.checkpointWriter;
+        }
+
+        /**
+         * @return whether generations are worked on by more than one thread.
+         */
+        public synchronized boolean isParallel() {
+            return pool != null || parallelism > 1;
+        }
+
+        /**
+         * @return the pool used when parallel, which is made with the parallelism if no pool has been set.
+         */
+        public synchronized ForkJoinPool getPool() {
+            if(pool == null) {
+                pool = new ForkJoinPool(parallelism);
+                ownsPool = true;
+            }
+            return pool;
+        }
+
+        public synchronized int getParallelism() {return pool != null ? pool.getParallelism() : parallelism;}
+
+        /**
+         * Replaces the pool too, also one set with {@link #setPool}, which is then left running for whoever made it to shut down.
+         * @param parallelism the number of threads to work on each generation, where 1 means serially on the calling thread.
+         */
+        public synchronized void setParallelism(int parallelism) {
+            if(parallelism < 1)
+                throw new IllegalArgumentException("parallelism was " + parallelism + " but cannot be less than 1.");
+            this.parallelism = parallelism;
+            replacePool(null);
+        }
+
+        /**
+         * The pool is used instead of the parallelism until the parallelism or another pool is set,
+         * and is never shut down by the settings.
+         * @param pool the pool to work on each generation with, or null to go back to using the parallelism.
+         */
+        public synchronized void setPool(ForkJoinPool pool) {replacePool(pool);}
+
+        /**
+         * Shuts the old pool down if it was made by these settings, so its threads do not linger.
+         */
+        private void replacePool(ForkJoinPool pool) {
+            if(ownsPool)
+                this.pool.shutdown();
+            this.pool = pool;
+            ownsPool = false;
+        }
+
+        public Selector getSelector() {return selector;}
+
+        /**
+         * @param selector the selector that picks the parents of each generation.
+         */
+        public void setSelector(Selector selector) {this.selector = selector;}
+
+        public Crossover getCrossover() {return crossover;}
+
+        /**
+         * @param crossover the crossover that combines the parents into each child.
+         */
+        public void setCrossover(Crossover crossover) {this.crossover = crossover;}
+
+        public Mutator getMutator() {return mutator;}
+
+        /**
+         * @param mutator the mutator that mutates each child after it is made from its parents.
+         */
+        public void setMutator(Mutator mutator) {this.mutator = mutator;}
+
+        public RandomSource getRandomSource() {return randomSource;}
+
+        /**
+         * @param randomSource the source of the random streams of the run, for example one restored from an earlier run.
+         */
+        public void setRandomSource(RandomSource randomSource) {this.randomSource = randomSource;}
+
+        /**
+         * @param seed the seed of the run, which makes it give the same result every time.
+         */
+        public void setSeed(long seed) {this.randomSource = new RandomSource(seed);}
+
+        public boolean isInPlace() {return inPlace;}
+
+        /**
+         * When in place, making several generations in one call keeps only two generations, the parents and the children,
+         * and writes every new generation over the children of the generation before its parents instead of making new children,
+         * so hardly anything is allocated per generation. This gives the same children as when not in place.
+         * The children of the generation passed in are written over too, so they should not be kept,
+         * and they have to be distinct and changeable.
+         * @param inPlace whether to write new generations over old ones.
+         */
+        public void setInPlace(boolean inPlace) {this.inPlace = inPlace;}
+
+        public int getDiversityInterval() {return diversityInterval;}
+
+        /**
+         * Measuring the diversity compares a sample of the children gene by gene, so by default it is only done when a termination needs it.
+         * @param diversityInterval the number of generations between the diversities recorded in the statistics of a run, or 0 to record none.
+         */
+        public void setDiversityInterval(int diversityInterval) {
+            if(diversityInterval < 0)
+                throw new IllegalArgumentException("diversityInterval was " + diversityInterval + " but cannot be less than 0.");
+            this.diversityInterval = diversityInterval;
+        }
+
+        public Metrics getMetrics() {return metrics;}
+
+        /**
+         * @param metrics the metrics to record the time of every generation and its phases into, or null to measure nothing.
+         */
+        public void setMetrics(Metrics metrics) {this.metrics = metrics;}
+
+        public Checkpoint.Writer getCheckpointWriter() {return checkpointWriter;}
+
+        /**
+         * Runs with a termination write a checkpoint every interval of the writer and when they stop,
+         * which only works for children of boolean genes. A run resumed from a checkpoint makes the same generations as the run it was saved from,
+         * although a termination that looks back, such as stagnation, only counts from where it was resumed.
+         * @param checkpointWriter the writer to save checkpoints of the run with, or null to save none.
+         */
+        public void setCheckpointWriter(Checkpoint.Writer checkpointWriter) {this.checkpointWriter = checkpointWriter;}
+
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,256 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Evolves several populations, called islands, side by side, where every island is made generation by generation
+ * just like a single population, and every few generations the best children of each island are copied to its neighbours.
+ * Since the islands only meet when migrating, they keep more diversity than one large population,
+ * and they are worked on in parallel on the pool of the settings, with each island on one thread.
+ * Every island gets its own random source split from the one of the settings, so a seeded run gives the same result on any number of threads.
+ * @param <Child> the type of the children.
+ */
+public class IslandModel<Child> {
+
+    /**
+     * Decides which islands the migrants of each island are copied to.
+     */
+    public enum Topology {
+        /** Every island sends its migrants to the next island, and the last island sends to the first. */
+        RING,
+        /** Every island sends its migrants to all the other islands. */
+        FULLY_CONNECTED,
+        /** Every island sends its migrants to another island picked at random at every migration. */
+        RANDOM
+    }
+
+    private final Function<GeneticAlgorithm.Settings, List<Child>> generationMaker;
+    private final BiFunction<List<Child>, GeneticAlgorithm.Settings, List<Child>> generationStep;
+    private final ToIntFunction<Child> childScorer;
+    private final UnaryOperator<Child> childCopier;
+
+    private Topology topology = Topology.RING;
+    private int migrationInterval = 10;
+    private int migrantAmount = 1;
+
+    /**
+     * @param generationMaker a function that makes the first generation of an island with the settings of the island.
+     * @param generationStep a function that makes the next generation of an island from its previous generation with the settings of the island.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness,
+     * which is used to pick the migrants and the children they replace.
+     * @param childCopier a function that copies a child, so that the islands never share a migrant.
+     */
+    public IslandModel(Function<GeneticAlgorithm.Settings, List<Child>> generationMaker,
+                       BiFunction<List<Child>, GeneticAlgorithm.Settings, List<Child>> generationStep,
+                       ToIntFunction<Child> childScorer, UnaryOperator<Child> childCopier) {
+        this.generationMaker = generationMaker;
+        this.generationStep = generationStep;
+        this.childScorer = childScorer;
+        this.childCopier = childCopier;
+    }
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param generationSize the number of children within each island.
+     * @param parentAmount the number of children used as parents for the next generation of each island.
+     * @param childSize the number of genes within each child.
+     * @param geneSupplier a function that supplies random genes.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness.
+     * @return an island model for children made of lists of genes.
+     */
+    public static <Type> IslandModel<List<Type>> ofLists(int generationSize, int parentAmount, int childSize,
+                                                         Supplier<Type> geneSupplier, Function<List<Type>, Integer> childScorer) {
+        return new IslandModel<List<Type>>(
+            settings -> GeneticAlgorithm.makeGenerationFromSupplier(generationSize, childSize, geneSupplier, settings),
+            (generation, settings) -> GeneticAlgorithm.makeGenerationFromGeneration(generation, generationSize, parentAmount, geneSupplier, childScorer, settings),
+            childScorer::apply, ArrayList<Type>::new);
+    }
+
+    /**
+     * @param generationSize the number of children within each island.
+     * @param parentAmount the number of children used as parents for the next generation of each island.
+     * @param childSize the number of genes within each child.
+     * @param childScorer a function that takes a child and gives a score to determine its effectiveness.
+     * @return an island model for children made of packed boolean genes.
+     */
+    public static IslandModel<BitGenome> ofBits(int generationSize, int parentAmount, int childSize, ToIntFunction<BitGenome> childScorer) {
+        return new IslandModel<BitGenome>(
+            settings -> BitGeneticAlgorithm.makeGenerationFromRandom(generationSize, childSize, settings),
+            (generation, settings) -> BitGeneticAlgorithm.makeGenerationFromGeneration(generation, generationSize, parentAmount, childScorer, settings),
+            childScorer, BitGenome::new);
+    }
+
+    public Topology getTopology() {return topology;}
+    public int getMigrationInterval() {return migrationInterval;}
+    public int getMigrantAmount() {return migrantAmount;}
+
+    /**
+     * @param topology the topology that decides where the migrants of each island go.
+     */
+    public void setTopology(Topology topology) {this.topology = topology;}
+
+    /**
+     * @param migrationInterval the number of generations between migrations.
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if(migrationInterval < 1)
+            throw new IllegalArgumentException("migrationInterval was " + migrationInterval + " but cannot be less than 1.");
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @param migrantAmount the number of best children each island sends at every migration, where 0 means the islands never meet.
+     */
+    public void setMigrantAmount(int migrantAmount) {
+        if(migrantAmount < 0)
+            throw new IllegalArgumentException("migrantAmount was " + migrantAmount + " but cannot be less than 0.");
+        this.migrantAmount = migrantAmount;
+    }
+
+    /**
+     * @param islandAmount the number of islands.
+     * @param generationAmount the number of generations to iterate through on every island.
+     * @param settings the settings of the algorithm, whose pool works on the islands.
+     * @return the islands after a specified number of generations.
+     */
+    public List<List<Child>> makeGenerations(int islandAmount, int generationAmount, GeneticAlgorithm.Settings settings) {
+        if(islandAmount < 1)
+            throw new IllegalArgumentException("islandAmount was " + islandAmount + " but cannot be less than 1.");
+        GeneticAlgorithm.Settings[] islandSettings = makeIslandSettings(islandAmount, settings);
+        List<List<Child>> islands = new ArrayList<List<Child>>(Collections.nCopies(islandAmount, null));
+        GeneticAlgorithm.forEachIndex(islandAmount, i -> islands.set(i, generationMaker.apply(islandSettings[i])), settings);
+        return makeGenerationsFromIslands(islands, generationAmount - 1, islandSettings, settings);
+    }
+
+    /**
+     * @param islands the previous generation of every island.
+     * @param generationAmount the number of generations to iterate through on every island.
+     * @param settings the settings of the algorithm, whose pool works on the islands.
+     * @return the islands after a specified number of generations.
+     */
+    public List<List<Child>> makeGenerationsFromIslands(List<List<Child>> islands, int generationAmount, GeneticAlgorithm.Settings settings) {
+        return makeGenerationsFromIslands(islands, generationAmount, makeIslandSettings(islands.size(), settings), settings);
+    }
+
+    private List<List<Child>> makeGenerationsFromIslands(List<List<Child>> islands, int generationAmount,
+                                                         GeneticAlgorithm.Settings[] islandSettings, GeneticAlgorithm.Settings settings) {
+        List<List<Child>> newIslands = new ArrayList<List<Child>>(islands);
+        for(int done = 0; done < generationAmount; ) {
+            int generations = Math.min(migrationInterval, generationAmount - done);
+            GeneticAlgorithm.forEachIndex(newIslands.size(), i -> {
+                List<Child> generation = newIslands.get(i);
+                for(int g = 0; g < generations; g++)
+                    generation = generationStep.apply(generation, islandSettings[i]);
+                newIslands.set(i, generation);
+            }, settings);
+            done += generations;
+            if(done < generationAmount)
+                migrate(newIslands, settings);
+        }
+        return newIslands;
+    }
+
+    /**
+     * Every island sends copies of its best children to the islands given by the topology,
+     * where they replace the worst children of those islands.
+     * The migrants are all picked before any are placed, so the order of the islands does not matter.
+     * Every island is scored once, and its best and worst children are both picked from those scores.
+     * The scoring and the placing are done on the pool of the settings, with each island on one thread.
+     * @param islands the islands to migrate between, which are replaced by the islands after migration.
+     * @param settings the settings of the algorithm.
+     */
+    public void migrate(List<List<Child>> islands, GeneticAlgorithm.Settings settings) {
+        RandomGenerator random = RandomSource.forIndex(settings.getRandomSource().nextSeed(), 0);
+        int islandAmount = islands.size();
+        if(islandAmount < 2 || migrantAmount == 0)
+            return;
+        List<List<Child>> sources = new ArrayList<List<Child>>(islands);
+        int[][] targets = new int[islandAmount][];
+        int[] incomingAmount = new int[islandAmount];
+        for(int i = 0; i < islandAmount; i++) {
+            targets[i] = getTargets(i, islandAmount, random);
+            for(int target : targets[i])
+                incomingAmount[target] += Math.min(migrantAmount, sources.get(i).size());
+        }
+        GeneticAlgorithm.Settings islandSettings = new GeneticAlgorithm.Settings(settings);
+        islandSettings.setParallelism(1);
+        int[][] best = new int[islandAmount][], worst = new int[islandAmount][];
+        GeneticAlgorithm.forEachIndex(islandAmount, i -> {
+            List<Child> island = sources.get(i);
+            int[] scores = GeneticAlgorithm.getScores(island, childScorer, islandSettings);
+            best[i] = GeneticAlgorithm.getBestIndices(scores, Math.min(migrantAmount, island.size()));
+            for(int s = 0; s < scores.length; s++)
+                scores[s] = ~scores[s]; //Turns the scores around, so the best indices are those of the worst children.
+            worst[i] = incomingAmount[i] == 0 ? new int[0] : GeneticAlgorithm.getBestIndices(scores, Math.min(incomingAmount[i], island.size()));
+        }, settings);
+        GeneticAlgorithm.forEachIndex(islandAmount, i -> {
+            if(incomingAmount[i] == 0)
+                return;
+            List<Child> island = new ArrayList<Child>(sources.get(i));
+            int w = 0;
+            for(int source = 0; source < islandAmount && w < worst[i].length; source++)
+                for(int target : targets[source])
+                    if(target == i)
+                        for(int b = 0; b < best[source].length && w < worst[i].length; b++)
+                            island.set(worst[i][w++], childCopier.apply(sources.get(source).get(best[source][b])));
+            islands.set(i, island);
+        }, settings);
+    }
+
+    private int[] getTargets(int island, int islandAmount, RandomGenerator random) {
+        switch(topology) {
+            case RING:
+                return new int[]{(island + 1) % islandAmount};
+            case FULLY_CONNECTED:
+                int[] targets = new int[islandAmount - 1];
+                for(int t = 0; t < targets.length; t++)
+                    targets[t] = t < island ? t : t + 1;
+                return targets;
+            case RANDOM:
+                int target = random.nextInt(islandAmount - 1);
+                return new int[]{target < island ? target : target + 1};
+            default:
+                throw new IllegalStateException("Unknown topology " + topology + ".");
+        }
+    }
+
+    /**
+     * @param islands the islands from which to get the best child.
+     * @param settings the settings of the algorithm.
+     * @return the best child of all the islands.
+     */
+    public Child getBestChild(List<List<Child>> islands, GeneticAlgorithm.Settings settings) {
+        Child best = null;
+        int bestScore = 0;
+        for(List<Child> island : islands) {
+            int[] scores = GeneticAlgorithm.getScores(island, childScorer, settings);
+            for(int i = 0; i < scores.length; i++) {
+                if(best == null || scores[i] > bestScore) {
+                    best = island.get(i);
+                    bestScore = scores[i];
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Every island works serially on its own thread, with a random source split from the one of the settings.
+     */
+    private static GeneticAlgorithm.Settings[] makeIslandSettings(int islandAmount, GeneticAlgorithm.Settings settings) {
+        GeneticAlgorithm.Settings[] islandSettings = new GeneticAlgorithm.Settings[islandAmount];
+        for(int i = 0; i < islandAmount; i++) {
+            islandSettings[i] = new GeneticAlgorithm.Settings(settings);
+            islandSettings[i].setParallelism(1);
+            islandSettings[i].setRandomSource(settings.getRandomSource().split());
+        }
+        return islandSettings;
+    }
+
+}
@@ -0,0 +1,281 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable list of items, with the names, weights and prices in separate arrays and the index of every name in a hash map,
+ * which can be loaded from large files without making an object per item, and can be used by any number of threads.
+ * <p>
+ * Catalogs are read from CSV files with a line of {@code name,weight,price} per item, or from a binary file made by {@link #write}.
+ * In CSV files, a first line that is not an item is taken as a header, empty lines and lines starting with {@code #} are skipped,
+ * and names can contain commas or be put in double quotes, with a double quote in a quoted name written twice.
+ * <p>
+ * The binary file starts with the magic number {@code GAIC}, a version and the number of items, followed by all the weights, all the prices
+ * and then every name as its length in bytes and its bytes in UTF-8. All numbers are big-endian.
+ */
+public final class ItemCatalog {
+
+    private static final int MAGIC = 0x47414943; //"GAIC"
+    private static final int VERSION = 1;
+
+    private final String[] names;
+    private final int[] weights;
+    private final int[] prices;
+    // The index of the first item with each name, made the first time a name is looked up.
+    private volatile Map<String, Integer> index;
+
+    /**
+     * The arrays are kept, so they must not be changed afterwards.
+     */
+    private ItemCatalog(String[] names, int[] weights, int[] prices) {
+        this.names = names;
+        this.weights = weights;
+        this.prices = prices;
+    }
+
+    /**
+     * The arrays are copied, so changing them afterwards does not change the catalog.
+     * @param names the name of each item.
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     */
+    public static ItemCatalog of(String[] names, int[] weights, int[] prices) {
+        if(names.length != weights.length || names.length != prices.length)
+            throw new IllegalArgumentException("There were " + names.length + " names, " + weights.length + " weights and " + prices.length + " prices.");
+        for(int weight : weights)
+            if(weight < 0)
+                throw new IllegalArgumentException("weight was " + weight + " but cannot be less than 0.");
+        return new ItemCatalog(names.clone(), weights.clone(), prices.clone());
+    }
+
+    /**
+     * @param items the items of the catalog.
+     * @return a catalog of the items as they are now.
+     */
+    public static ItemCatalog of(List<Backpack.Item> items) {
+        String[] names = new String[items.size()];
+        int[] weights = new int[items.size()], prices = new int[items.size()];
+        for(int i = 0; i < names.length; i++) {
+            names[i] = items.get(i).getName();
+            weights[i] = items.get(i).getWeight();
+            prices[i] = items.get(i).getPrice();
+        }
+        return of(names, weights, prices);
+    }
+
+    public int getItemSize() {return names.length;}
+
+    public String getItemName(int index) {return names[index];}
+    public int getItemWeight(int index) {return weights[index];}
+    public int getItemPrice(int index) {return prices[index];}
+
+    /**
+     * @param name the name of an item.
+     * @return the index of the first item with that name, or -1 if there is none.
+     */
+    public int indexOf(String name) {
+        Map<String, Integer> current = index;
+        if(current == null) {
+            current = new HashMap<String, Integer>(names.length * 4 / 3 + 1);
+            for(int i = 0; i < names.length; i++)
+                current.putIfAbsent(names[i], i);
+            index = current;
+        }
+        Integer i = current.get(name);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * @param maxWeight the maximum total weight of the chosen items.
+     * @return a problem of choosing between the items of the catalog.
+     */
+    public KnapsackProblem toProblem(int maxWeight) {
+        return new KnapsackProblem(names, weights, prices, maxWeight);
+    }
+
+    /**
+     * @return a new item for every item of the catalog.
+     */
+    public List<Backpack.Item> toItems() {
+        List<Backpack.Item> items = new ArrayList<Backpack.Item>(names.length);
+        for(int i = 0; i < names.length; i++)
+            items.add(new Backpack.Item(names[i], weights[i], prices[i]));
+        return items;
+    }
+
+    /**
+     * @param path a CSV or binary catalog file, told apart by the magic number at the start of binary files.
+     * @return the catalog in the file.
+     * @throws IOException if the file could not be read or is not a catalog.
+     */
+    public static ItemCatalog load(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer start = ByteBuffer.allocate(4);
+            while(start.hasRemaining() && channel.read(start) >= 0);
+            if(start.flip().remaining() == 4 && start.getInt() == MAGIC)
+                return read(path);
+        }
+        return readCsv(path);
+    }
+
+    /**
+     * @param path a CSV file with a line of {@code name,weight,price} per item.
+     * @return the catalog in the file.
+     * @throws IOException if the file could not be read or a line is not an item.
+     */
+    public static ItemCatalog readCsv(Path path) throws IOException {
+        List<String> names = new ArrayList<String>();
+        int[] weights = new int[1024], prices = new int[1024];
+        try(BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            boolean first = true;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.isBlank() || line.startsWith("#"))
+                    continue;
+                int priceComma = line.lastIndexOf(','), weightComma = priceComma < 1 ? -1 : line.lastIndexOf(',', priceComma - 1);
+                int weight = 0, price = 0;
+                boolean isItem = weightComma >= 0;
+                if(isItem) {
+                    try {
+                        weight = parseInt(line, weightComma + 1, priceComma);
+                        price = parseInt(line, priceComma + 1, line.length());
+                    } catch(NumberFormatException e) {
+                        isItem = false;
+                    }
+                }
+                if(!isItem) {
+                    if(!first)
+                        throw new IOException("Line " + lineNumber + " of " + path + " should be name,weight,price with whole numbers but was " + line);
+                    first = false;
+                    continue; //A header.
+                }
+                first = false;
+                if(weight < 0)
+                    throw new IOException("Line " + lineNumber + " of " + path + " has a weight of " + weight + ", which cannot be less than 0.");
+                if(names.size() == weights.length) {
+                    weights = Arrays.copyOf(weights, weights.length * 2);
+                    prices = Arrays.copyOf(prices, prices.length * 2);
+                }
+                weights[names.size()] = weight;
+                prices[names.size()] = price;
+                names.add(unquote(line.substring(0, weightComma).strip()));
+            }
+        }
+        return new ItemCatalog(names.toArray(new String[0]), Arrays.copyOf(weights, names.size()), Arrays.copyOf(prices, names.size()));
+    }
+
+    /**
+     * @param path a binary catalog file, which is mapped into memory instead of copied into a buffer if it is large.
+     * @return the catalog in the file.
+     * @throws IOException if the file could not be read or is not a catalog.
+     */
+    public static ItemCatalog read(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+                throw new IOException("The file is " + size + " bytes, which is more than a catalog can be.");
+            ByteBuffer buffer;
+            if(size >= 1 << 20)
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            else {
+                buffer = ByteBuffer.allocate((int) size);
+                while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+                buffer.flip();
+            }
+            return decode(buffer);
+        }
+    }
+
+    private static ItemCatalog decode(ByteBuffer buffer) throws IOException {
+        if(buffer.remaining() < 12 || buffer.getInt() != MAGIC)
+            throw new IOException("The data is not a catalog.");
+        int version = buffer.getInt();
+        if(version != VERSION)
+            throw new IOException("The catalog has version " + version + " but only version " + VERSION + " can be read.");
+        int itemSize = buffer.getInt();
+        if(itemSize < 0 || buffer.remaining() < 12L * itemSize)
+            throw new IOException("The catalog has " + itemSize + " items but only " + buffer.remaining() + " bytes after its header.");
+        int[] weights = new int[itemSize], prices = new int[itemSize];
+        buffer.asIntBuffer().get(weights);
+        buffer.position(buffer.position() + 4 * itemSize);
+        buffer.asIntBuffer().get(prices);
+        buffer.position(buffer.position() + 4 * itemSize);
+        String[] names = new String[itemSize];
+        byte[] bytes = new byte[64];
+        for(int i = 0; i < itemSize; i++) {
+            int length = buffer.remaining() < 4 ? -1 : buffer.getInt();
+            if(length < 0 || length > buffer.remaining())
+                throw new IOException("The name of item " + i + " goes past the end of the catalog.");
+            if(length > bytes.length)
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            buffer.get(bytes, 0, length);
+            names[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        for(int weight : weights)
+            if(weight < 0)
+                throw new IOException("The catalog has a weight of " + weight + ", which cannot be less than 0.");
+        return new ItemCatalog(names, weights, prices);
+    }
+
+    /**
+     * @param path the file to write the catalog to in the binary format.
+     * @throws IOException if the file could not be written.
+     */
+    public void write(Path path) throws IOException {
+        byte[][] nameBytes = new byte[names.length][];
+        long size = 12 + 12L * names.length;
+        for(int i = 0; i < names.length; i++)
+            size += (nameBytes[i] = names[i].getBytes(StandardCharsets.UTF_8)).length;
+        if(size > Integer.MAX_VALUE)
+            throw new IllegalStateException("The catalog would take " + size + " bytes, which is more than a buffer can hold.");
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(names.length);
+        buffer.asIntBuffer().put(weights).put(prices);
+        buffer.position(buffer.position() + 8 * names.length);
+        for(byte[] bytes : nameBytes)
+            buffer.putInt(bytes.length).put(bytes);
+        buffer.flip();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Parses the number without making a string of it, allowing spaces around it.
+     */
+    private static int parseInt(String line, int from, int to) {
+        while(from < to && line.charAt(from) == ' ')
+            from++;
+        while(to > from && line.charAt(to - 1) == ' ')
+            to--;
+        return Integer.parseInt(line, from, to, 10);
+    }
+
+    /**
+     * @param name a name that may be in double quotes.
+     * @return the name without the quotes, and with every doubled double quote made single.
+     */
+    private static String unquote(String name) {
+        if(name.length() >= 2 && name.startsWith("\"") && name.endsWith("\""))
+            return name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        return name;
+    }
+
+    public String toString() {
+        return "[" + names.length + " items]";
+    }
+
+}
@@ -0,0 +1,443 @@
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable knapsack problem, with the names, weights and prices of the items kept in separate primitive arrays.
+ * Since nothing about it can change, it can be used by any number of threads and runs at the same time.
+ * As a {@link DeltaScorer} it keeps the weight and the price of each packing, so that packings made from scored packings
+ * are scored by only looking at the items that were added or removed. As a {@link BlockScorer} it sums packings with plain loops,
+ * which is what {@link #getBlockScorer()} falls back to.
+ * <p>
+ * Whole generations of packings are scored with the vector API if the JVM was started with {@code --add-modules jdk.incubator.vector}
+ * and the scorer in the {@code vector} directory was compiled along with the rest, and with plain loops otherwise.
+ */
+public final class KnapsackProblem implements DeltaScorer, BlockScorer {
+
+    private final String[] names;
+    private final int[] weights;
+    private final int[] prices;
+    private final int maxWeight;
+    private volatile BlockScorer blockScorer;
+    // The items from the highest price per weight to the lowest, and the lowest weight of any item, made the first time a packing is repaired.
+    private volatile int[] ratioOrder;
+    private int minWeight;
+
+    // The constructor of the vector scorer, or null if the vector module is not there or the scorer was not compiled.
+    private static final Constructor<? extends BlockScorer> vectorScorer = findVectorScorer();
+
+    /**
+     * @param items the items to choose between.
+     * @param maxWeight the maximum total weight of the chosen items.
+     */
+    public KnapsackProblem(List<Backpack.Item> items, int maxWeight) {
+        this(items.stream().map(Backpack.Item::getName).toArray(String[]::new),
+             items.stream().mapToInt(Backpack.Item::getWeight).toArray(),
+             items.stream().mapToInt(Backpack.Item::getPrice).toArray(),
+             maxWeight);
+    }
+
+    /**
+     * The arrays are copied, so changing them afterwards does not change the problem.
+     * @param names the name of each item.
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     * @param maxWeight the maximum total weight of the chosen items.
+     */
+    public KnapsackProblem(String[] names, int[] weights, int[] prices, int maxWeight) {
+        if(names.length != weights.length || names.length != prices.length)
+            throw new IllegalArgumentException("There were " + names.length + " names, " + weights.length + " weights and " + prices.length + " prices.");
+        for(int weight : weights)
+            if(weight < 0)
+                throw new IllegalArgumentException("weight was " + weight + " but cannot be less than 0.");
+        this.names = names.clone();
+        this.weights = weights.clone();
+        this.prices = prices.clone();
+        this.maxWeight = maxWeight;
+    }
+
+    public int getItemSize() {return weights.length;}
+    public int getMaxWeight() {return maxWeight;}
+
+    public String getItemName(int index) {return names[index];}
+    public int getItemWeight(int index) {return weights[index];}
+    public int getItemPrice(int index) {return prices[index];}
+
+    /**
+     * @param maxWeight the maximum total weight of the chosen items.
+     * @return a problem with the same items but another maximum weight.
+     */
+    public KnapsackProblem withMaxWeight(int maxWeight) {
+        return new KnapsackProblem(names, weights, prices, maxWeight);
+    }
+
+    public int getWeight(List<Boolean> list) {
+        return sum(list, weights);
+    }
+
+    public int getPrice(List<Boolean> list) {
+        return sum(list, prices);
+    }
+
+    /**
+     * Adds up the weight and the price in the same pass, and stops as soon as the weight is above the maximum.
+     * @param list the packing to score.
+     * @return the price of the packing, or 0 if it weighs more than the maximum weight.
+     */
+    public int getPriceIfAllowed(List<Boolean> list) {
+        int weight = 0, price = 0;
+        for(int i = 0; i < weights.length; i++) {
+            if(list.get(i)) {
+                weight += weights[i];
+                if(weight > maxWeight)
+                    return 0;
+                price += prices[i];
+            }
+        }
+        return price;
+    }
+
+    public int getWeight(BitGenome genome) {
+        return sumMasked(genome, weights);
+    }
+
+    public int getPrice(BitGenome genome) {
+        return sumMasked(genome, prices);
+    }
+
+    /**
+     * Adds up the weight and the price in the same pass over the set bits, and stops after the first word that goes above the maximum.
+     * @param genome the packing to score.
+     * @return the price of the packing, or 0 if it weighs more than the maximum weight.
+     */
+    public int getPriceIfAllowed(BitGenome genome) {
+        if(genome.size() > weights.length)
+            throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + weights.length + " items.");
+        int weight = 0, price = 0;
+        for(int w = 0; w < genome.getWordAmount(); w++) {
+            long word = genome.getWord(w);
+            int base = w << 6;
+            while(word != 0) {
+                int i = base + Long.numberOfTrailingZeros(word);
+                weight += weights[i];
+                price += prices[i];
+                word &= word - 1;
+            }
+            if(weight > maxWeight)
+                return 0;
+        }
+        return price;
+    }
+
+    public void sumBlock(List<BitGenome> generation, int from, int to, int[] weightSums, int[] priceSums) {
+        for(int i = from; i < to; i++) {
+            BitGenome genome = generation.get(i);
+            if(genome.size() > weights.length)
+                throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + weights.length + " items.");
+            int weight = 0, price = 0;
+            for(int w = 0; w < genome.getWordAmount(); w++) {
+                long word = genome.getWord(w);
+                int base = w << 6;
+                while(word != 0) {
+                    int item = base + Long.numberOfTrailingZeros(word);
+                    weight += weights[item];
+                    price += prices[item];
+                    word &= word - 1;
+                }
+            }
+            weightSums[i] = weight;
+            priceSums[i] = price;
+        }
+    }
+
+    /**
+     * @param mutator the mutator to mutate children with.
+     * @return a mutator that mutates with the mutator and then {@link #repair(BitGenome) repairs} every child,
+     * so every child it mutates is scored by its price. With this mutator in the settings, the random children of the first generation are repaired too,
+     * so every child the algorithm scores weighs no more than the maximum weight.
+     */
+    public Mutator repairing(Mutator mutator) {
+        return new Mutator.Repairing(mutator, this);
+    }
+
+    private int[] getRatioOrder() {
+        int[] order = ratioOrder;
+        if(order == null) {
+            order = KnapsackSolver.getRatioOrder(weights, prices);
+            int min = Integer.MAX_VALUE;
+            for(int weight : weights)
+                min = Math.min(min, weight);
+            minWeight = min;
+            ratioOrder = order; //Written after the lowest weight, so whoever sees the order sees the weight too.
+        }
+        return order;
+    }
+
+    /**
+     * Makes the packing weigh no more than the maximum weight by taking out the items with the lowest price per weight first,
+     * and then fills the weight that is left with the items with the highest price per weight that still fit.
+     * The packing is changed in place and carries its new weight and price afterwards.
+     * @param genome the packing to repair, which can have fewer genes than there are items.
+     * @return the packing.
+     */
+    public BitGenome repair(BitGenome genome) {
+        if(genome.size() > weights.length)
+            throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + weights.length + " items.");
+        int[] totals = repair(genome.size(), sumMasked(genome, weights), sumMasked(genome, prices), genome::get, genome::flip);
+        genome.setTotals(this, totals);
+        return genome;
+    }
+
+    /**
+     * Does the same as {@link #repair(BitGenome)} for a list of genes.
+     * @param list the packing to repair, which can have fewer genes than there are items.
+     * @return the packing.
+     */
+    public List<Boolean> repair(List<Boolean> list) {
+        if(list.size() > weights.length)
+            throw new IllegalArgumentException("Genome has " + list.size() + " genes but there are only " + weights.length + " items.");
+        int weight = 0, price = 0;
+        for(int i = 0; i < list.size(); i++)
+            if(list.get(i)) {
+                weight += weights[i];
+                price += prices[i];
+            }
+        repair(list.size(), weight, price, list::get, i -> list.set(i, !list.get(i)));
+        return list;
+    }
+
+    /**
+     * The loop both kinds of packings are repaired with, which only reads and flips their genes.
+     * @param size the number of genes of the packing.
+     * @param weight the weight of the packing.
+     * @param price the price of the packing.
+     * @param gene a function that tells whether the gene at an index is true.
+     * @param flip a function that flips the gene at an index.
+     * @return the weight and the price of the repaired packing.
+     */
+    private int[] repair(int size, int weight, int price, IntPredicate gene, IntConsumer flip) {
+        int[] order = getRatioOrder();
+        for(int k = order.length - 1; k >= 0 && weight > maxWeight; k--) {
+            int i = order[k];
+            if(i < size && gene.test(i)) {
+                flip.accept(i);
+                weight -= weights[i];
+                price -= prices[i];
+            }
+        }
+        for(int k = 0; k < order.length && maxWeight - weight >= minWeight; k++) {
+            int i = order[k];
+            if(i < size && prices[i] > 0 && weight + weights[i] <= maxWeight && !gene.test(i)) {
+                flip.accept(i);
+                weight += weights[i];
+                price += prices[i];
+            }
+        }
+        return new int[]{weight, price};
+    }
+
+    /**
+     * @return 2, for the weight and the price of a packing.
+     */
+    public int getTotalAmount() {return 2;}
+
+    public void addGene(int gene, int[] totals) {
+        totals[0] += weights[gene];
+        totals[1] += prices[gene];
+    }
+
+    public void removeGene(int gene, int[] totals) {
+        totals[0] -= weights[gene];
+        totals[1] -= prices[gene];
+    }
+
+    /**
+     * @param totals the weight and the price of a packing.
+     * @return the price of the packing, or 0 if it weighs more than the maximum weight.
+     */
+    public int score(int[] totals) {
+        return totals[0] > maxWeight ? 0 : totals[1];
+    }
+
+    /**
+     * @param genome the packing to get the weight and the price of.
+     * @return the weight and the price the packing carries, which are worked out from all its items if it does not carry them yet.
+     */
+    public int[] getTotals(BitGenome genome) {
+        if(genome.size() > weights.length)
+            throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + weights.length + " items.");
+        return DeltaScorer.super.getTotals(genome);
+    }
+
+    /**
+     * Does the same as the default, but adds and removes the items straight from the arrays in a single loop.
+     */
+    public void carryTotals(BitGenome child, BitGenome reference) {
+        int[] referenceTotals = getTotals(reference);
+        int weight = referenceTotals[0], price = referenceTotals[1];
+        for(int w = 0; w < child.getWordAmount(); w++) {
+            long childWord = child.getWord(w);
+            long difference = childWord ^ reference.getWord(w);
+            int base = w << 6;
+            while(difference != 0) {
+                int bit = Long.numberOfTrailingZeros(difference);
+                int sign = (int) (childWord >>> bit & 1) * 2 - 1;
+                weight += sign * weights[base + bit];
+                price += sign * prices[base + bit];
+                difference &= difference - 1;
+            }
+        }
+        child.setTotals(this, new int[]{weight, price});
+    }
+
+    /**
+     * @param generation the packings to score.
+     * @return the price of each packing, or 0 for the ones that weigh more than the maximum weight.
+     */
+    public int[] scoreGeneration(List<List<Boolean>> generation) {
+        return scoreGeneration(generation, new int[generation.size()]);
+    }
+
+    /**
+     * @param generation the packings to score.
+     * @param scores the array to write the score of each packing into, which is at least as long as the generation.
+     * @return the array of scores.
+     */
+    public int[] scoreGeneration(List<List<Boolean>> generation, int[] scores) {
+        for(int i = 0; i < generation.size(); i++)
+            scores[i] = getPriceIfAllowed(generation.get(i));
+        return scores;
+    }
+
+    /**
+     * @return whether generations of packings are scored with the vector API.
+     */
+    public static boolean isVectorized() {return vectorScorer != null;}
+
+    private static Constructor<? extends BlockScorer> findVectorScorer() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        String packageName = KnapsackProblem.class.getPackageName();
+        try {
+            Class<? extends BlockScorer> type = Class.forName((packageName.isEmpty() ? "" : packageName + ".") + "VectorBlockScorer")
+                                                     .asSubclass(BlockScorer.class);
+            Constructor<? extends BlockScorer> constructor = type.getDeclaredConstructor(int[].class, int[].class, int.class);
+            constructor.setAccessible(true);
+            constructor.newInstance(new int[0], new int[0], 0); //Fails here if the vectors of this CPU are not supported.
+            return constructor;
+        } catch(ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the scorer that whole generations are scored with, which uses the vector API if it can.
+     */
+    public BlockScorer getBlockScorer() {
+        BlockScorer current = blockScorer;
+        if(current == null) {
+            current = this;
+            if(vectorScorer != null) {
+                try {
+                    current = vectorScorer.newInstance(weights, prices, maxWeight);
+                } catch(ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not make the vector scorer.", e);
+                }
+            }
+            blockScorer = current;
+        }
+        return current;
+    }
+
+    /**
+     * @param generation the packings to score.
+     * @return the price of each packing, or 0 for the ones that weigh more than the maximum weight.
+     */
+    public int[] scoreBitGeneration(List<BitGenome> generation) {
+        return scoreBitGeneration(generation, new int[generation.size()]);
+    }
+
+    /**
+     * @param generation the packings to score.
+     * @param scores the array to write the score of each packing into, which is at least as long as the generation.
+     * @return the array of scores.
+     */
+    public int[] scoreBitGeneration(List<BitGenome> generation, int[] scores) {
+        getBlockScorer().scoreBlock(generation, 0, generation.size(), scores);
+        return scores;
+    }
+
+    private int sum(List<Boolean> list, int[] table) {
+        int sum = 0;
+        for(int i = 0; i < table.length; i++)
+            if(list.get(i))
+                sum += table[i];
+        return sum;
+    }
+
+    /**
+     * Only visits the set bits of each word, so empty words cost a single comparison.
+     * @param genome the genome whose genes select the values.
+     * @param table the value of each item.
+     * @return the sum of the values of the items selected by the genome.
+     */
+    private static int sumMasked(BitGenome genome, int[] table) {
+        if(genome.size() > table.length)
+            throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + table.length + " items.");
+        int sum = 0;
+        for(int w = 0; w < genome.getWordAmount(); w++) {
+            long word = genome.getWord(w);
+            int base = w << 6;
+            while(word != 0) {
+                sum += table[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return the packing of the items with the highest price that is allowed, found by an exact solver.
+     */
+    public BitGenome getOptimalPacking() {
+        return KnapsackSolver.solve(weights, prices, maxWeight);
+    }
+
+    public String getNames(List<Boolean> list) {
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < names.length; i++)
+            if(list.get(i))
+                builder.append('[').append(names[i]).append(']');
+        return builder.toString();
+    }
+
+    public String getNames(BitGenome genome) {
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < genome.size(); i++)
+            if(genome.get(i))
+                builder.append('[').append(names[i]).append(']');
+        return builder.toString();
+    }
+
+    public String toString(List<Boolean> list) {
+        StringBuilder builder = new StringBuilder().append('[');
+        for(int i = 0; i < list.size(); i++)
+            builder.append(i == 0 ? "" : ", ").append(list.get(i) ? 1 : 0);
+        return builder.append("] has a price of ").append(getPrice(list))
+                      .append(", weighs ").append(getWeight(list))
+                      .append(" and contains ").append(getNames(list)).append('.')
+                      .toString();
+    }
+
+    public String toString(BitGenome genome) {
+        return genome + " has a price of " + getPrice(genome) +
+               ", weighs " + getWeight(genome) +
+               " and contains " + getNames(genome) + ".";
+    }
+
+    public String toString() {
+        return "[" + weights.length + " items," + maxWeight + "]";
+    }
+
+}
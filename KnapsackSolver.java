@@ -0,0 +1,177 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Exact solvers for the 0/1 knapsack problem, which give the best possible packing to compare the genetic algorithm against.
+ * All weights and prices have to be 0 or more.
+ */
+public class KnapsackSolver {
+
+    /**
+     * The largest table of choices, in bits, that the dynamic programming solver is allowed to use.
+     */
+    public static final long MAX_TABLE_BITS = 1L << 30;
+
+    /**
+     * The largest maximum weight the dynamic programming solver is allowed to use, since it keeps a best price for every capacity
+     * whatever the number of items. This keeps that array as small as the largest table of choices.
+     */
+    public static final int MAX_CAPACITY = (int) (MAX_TABLE_BITS / Integer.SIZE);
+
+    /**
+     * Uses dynamic programming if the maximum weight and the table of choices are small enough, and branch and bound otherwise.
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     * @param maxWeight the maximum total weight of the packing.
+     * @return the packing with the highest total price that does not weigh more than the maximum weight.
+     */
+    public static BitGenome solve(int[] weights, int[] prices, int maxWeight) {
+        if(maxWeight <= MAX_CAPACITY && (long) weights.length * (maxWeight + 1L) <= MAX_TABLE_BITS)
+            return solveDynamic(weights, prices, maxWeight);
+        return solveBranchAndBound(weights, prices, maxWeight);
+    }
+
+    /**
+     * Goes through the items once, keeping the best price for every capacity in a single array that is updated from the top down.
+     * The choices are kept as one bit per item and capacity, so the packing can be found by walking back through them.
+     * Takes time proportional to the number of items times the maximum weight.
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     * @param maxWeight the maximum total weight of the packing.
+     * @return the packing with the highest total price that does not weigh more than the maximum weight.
+     */
+    public static BitGenome solveDynamic(int[] weights, int[] prices, int maxWeight) {
+        check(weights, prices, maxWeight);
+        int n = weights.length;
+        int words = BitGenome.getWordAmount(maxWeight + 1);
+        if((long) n * words > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The table of choices for " + n + " items and a maximum weight of " + maxWeight + " is too large.");
+        int[] best = new int[maxWeight + 1];
+        long[] taken = new long[n * words];
+        for(int i = 0; i < n; i++) {
+            int weight = weights[i], price = prices[i], row = i * words;
+            for(int capacity = maxWeight; capacity >= weight; capacity--) {
+                int withItem = best[capacity - weight] + price;
+                if(withItem > best[capacity]) {
+                    best[capacity] = withItem;
+                    taken[row + (capacity >>> 6)] |= 1L << capacity;
+                }
+            }
+        }
+        BitGenome packing = new BitGenome(n);
+        int capacity = maxWeight;
+        for(int i = n - 1; i >= 0; i--) {
+            if((taken[i * words + (capacity >>> 6)] & (1L << capacity)) != 0) {
+                packing.set(i, true);
+                capacity -= weights[i];
+            }
+        }
+        return packing;
+    }
+
+    /**
+     * Searches through the packings depth first with the items sorted by price per weight,
+     * and skips every branch whose fractional upper bound cannot beat the best packing found so far.
+     * Does not depend on the size of the maximum weight, but can take exponential time on hard instances.
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     * @param maxWeight the maximum total weight of the packing.
+     * @return the packing with the highest total price that does not weigh more than the maximum weight.
+     */
+    public static BitGenome solveBranchAndBound(int[] weights, int[] prices, int maxWeight) {
+        check(weights, prices, maxWeight);
+        int n = weights.length;
+        int[] order = getRatioOrder(weights, prices);
+        long[] w = new long[n], p = new long[n];
+        for(int i = 0; i < n; i++) {
+            w[i] = weights[order[i]];
+            p[i] = prices[order[i]];
+        }
+        boolean[] take = new boolean[n], bestTake = new boolean[n];
+        long bestPrice = 0, currentWeight = 0, currentPrice = 0;
+        int j = 0;
+        while(true) {
+            boolean backtrack;
+            if(currentPrice + upperBound(w, p, j, maxWeight - currentWeight) <= bestPrice) {
+                backtrack = true;
+            } else {
+                while(j < n && w[j] <= maxWeight - currentWeight) { //Takes items for as long as they fit.
+                    take[j] = true;
+                    currentWeight += w[j];
+                    currentPrice += p[j];
+                    j++;
+                }
+                if(j < n) { //Leaves out the item that does not fit, and checks the bound again.
+                    take[j] = false;
+                    j++;
+                    continue;
+                }
+                if(currentPrice > bestPrice) {
+                    bestPrice = currentPrice;
+                    System.arraycopy(take, 0, bestTake, 0, n);
+                }
+                backtrack = true;
+            }
+            if(backtrack) { //Leaves out the last taken item, and searches on from there.
+                int k = j - 1;
+                while(k >= 0 && !take[k])
+                    k--;
+                if(k < 0)
+                    break;
+                take[k] = false;
+                currentWeight -= w[k];
+                currentPrice -= p[k];
+                j = k + 1;
+            }
+        }
+        BitGenome packing = new BitGenome(n);
+        for(int i = 0; i < n; i++)
+            if(bestTake[i])
+                packing.set(order[i], true);
+        return packing;
+    }
+
+    /**
+     * @param weights the weight of each item.
+     * @param prices the price of each item.
+     * @return the indices of the items sorted by price per weight, with the best first and items that weigh nothing before all others.
+     */
+    public static int[] getRatioOrder(int[] weights, int[] prices) {
+        return IntStream.range(0, weights.length)
+                        .boxed()
+                        .sorted(Comparator.comparingDouble((Integer i) -> weights[i] == 0 ? Double.POSITIVE_INFINITY : (double) prices[i] / weights[i])
+                                          .reversed())
+                        .mapToInt(i -> i)
+                        .toArray();
+    }
+
+    /**
+     * The price of filling the remaining weight with the items from the index, where the last item may be split,
+     * which is never less than the price of any real packing of those items.
+     */
+    private static long upperBound(long[] w, long[] p, int from, long remainingWeight) {
+        long price = 0;
+        for(int i = from; i < w.length; i++) {
+            if(w[i] <= remainingWeight) {
+                remainingWeight -= w[i];
+                price += p[i];
+            } else {
+                return price + p[i] * remainingWeight / w[i];
+            }
+        }
+        return price;
+    }
+
+    private static void check(int[] weights, int[] prices, int maxWeight) {
+        if(weights.length != prices.length)
+            throw new IllegalArgumentException("There were " + weights.length + " weights but " + prices.length + " prices.");
+        if(weights.length < 1)
+            throw new IllegalArgumentException("There has to be at least 1 item.");
+        if(maxWeight < 0)
+            throw new IllegalArgumentException("maxWeight was " + maxWeight + " but cannot be less than 0.");
+        if(Arrays.stream(weights).anyMatch(i -> i < 0) || Arrays.stream(prices).anyMatch(i -> i < 0))
+            throw new IllegalArgumentException("Weights and prices cannot be less than 0.");
+    }
+
+}
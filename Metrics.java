@@ -0,0 +1,263 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Counts where the algorithm spends its time, for every generation it makes with settings that have these metrics.
+ * Everything is kept in counters and histograms that many threads can add to at the same time without locking,
+ * and can be read through JMX once {@link #register registered}, or recorded with JFR as a {@code genalgo.Generation} event per generation.
+ * Without metrics in the settings, the algorithm measures nothing.
+ */
+public class Metrics implements MetricsMXBean {
+
+    /**
+     * The parts of the work on a generation that are timed.
+     */
+    public enum Phase {
+        /** Making a whole generation from the previous one. */
+        GENERATION,
+        /** Scoring the children of a generation. */
+        SCORING,
+        /** Selecting the parents from the scores. */
+        SELECTION,
+        /** Making the children from the parents by crossover and mutation. */
+        REPRODUCTION
+    }
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final EventType generationEventType = EventType.getEventType(GenerationEvent.class);
+
+    private final LongAdder generations = new LongAdder(),
+                            scorerCalls = new LongAdder(),
+                            allocatedBytes = new LongAdder();
+    private final LongAdder[] times = new LongAdder[Phase.values().length];
+    private final Histogram[] histograms = new Histogram[Phase.values().length];
+
+    public Metrics() {
+        for(int p = 0; p < times.length; p++) {
+            times[p] = new LongAdder();
+            histograms[p] = new Histogram();
+        }
+    }
+
+    /**
+     * @param phase the phase that was timed.
+     * @param time the time the phase took, in nanoseconds.
+     */
+    public void record(Phase phase, long time) {
+        times[phase.ordinal()].add(time);
+        histograms[phase.ordinal()].record(time);
+    }
+
+    /**
+     * @param time the time scoring took, in nanoseconds.
+     * @param calls the number of children the child scorer worked out a score for, leaving out those it looked up or carried over.
+     */
+    void recordScoring(long time, long calls) {
+        record(Phase.SCORING, time);
+        scorerCalls.add(calls);
+    }
+
+    /**
+     * Records a finished generation, and commits a JFR event for it if such events are being recorded.
+     * No event is made at all unless a recording has the event enabled.
+     * The scoring has already been recorded when it was done, so it is only given for the event.
+     * @param scoringTime the time spent scoring the previous generation while making this one, which is 0 if it had already been scored.
+     * @param allocated the bytes allocated by the calling thread while making the generation, or a negative number if not known.
+     */
+    void recordGeneration(long scoringTime, long selectionTime, long reproductionTime, long generationTime, long allocated, int generationSize) {
+        record(Phase.SELECTION, selectionTime);
+        record(Phase.REPRODUCTION, reproductionTime);
+        record(Phase.GENERATION, generationTime);
+        generations.increment();
+        if(allocated > 0)
+            allocatedBytes.add(allocated);
+        if(!generationEventType.isEnabled())
+            return;
+        GenerationEvent event = new GenerationEvent();
+        if(event.shouldCommit()) {
+            event.generationSize = generationSize;
+            event.scoringTime = scoringTime;
+            event.selectionTime = selectionTime;
+            event.reproductionTime = reproductionTime;
+            event.generationTime = generationTime;
+            event.allocated = allocated;
+            event.commit();
+        }
+    }
+
+    /**
+     * Only counts the calling thread, so allocations made by other threads of a parallel pool are not included.
+     * @return the number of bytes allocated by the calling thread so far, or -1 if the JVM cannot tell.
+     */
+    static long getThreadAllocatedBytes() {
+        if(threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        return -1;
+    }
+
+    public long getGenerationCount() {return generations.sum();}
+    public long getScorerCallCount() {return scorerCalls.sum();}
+    public long getAllocatedBytes() {return allocatedBytes.sum();}
+
+    /**
+     * @param phase a timed phase.
+     * @return the total time spent in the phase, in nanoseconds.
+     */
+    public long getTime(Phase phase) {return times[phase.ordinal()].sum();}
+
+    /**
+     * @param phase a timed phase.
+     * @return the histogram of the times spent in the phase.
+     */
+    public Histogram getHistogram(Phase phase) {return histograms[phase.ordinal()];}
+
+    public long getGenerationTime() {return getTime(Phase.GENERATION);}
+    public long getScoringTime() {return getTime(Phase.SCORING);}
+    public long getSelectionTime() {return getTime(Phase.SELECTION);}
+    public long getReproductionTime() {return getTime(Phase.REPRODUCTION);}
+    public long getGenerationTimeMedian() {return getHistogram(Phase.GENERATION).getQuantile(0.5);}
+    public long getGenerationTimeP99() {return getHistogram(Phase.GENERATION).getQuantile(0.99);}
+
+    public void reset() {
+        generations.reset();
+        scorerCalls.reset();
+        allocatedBytes.reset();
+        for(int p = 0; p < times.length; p++) {
+            times[p].reset();
+            histograms[p].reset();
+        }
+    }
+
+    /**
+     * @param name the name to tell these metrics apart from others in JMX.
+     * @return the name the metrics were registered with in the platform MBean server.
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("genalgo:type=Metrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch(JMException e) {
+            throw new IllegalStateException("Could not register the metrics as " + name + ".", e);
+        }
+    }
+
+    /**
+     * @param objectName the name the metrics were registered with.
+     */
+    public static void unregister(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if(server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+        } catch(JMException e) {
+            throw new IllegalStateException("Could not unregister the metrics " + objectName + ".", e);
+        }
+    }
+
+    public String toString() {
+        return "[" + getGenerationCount() + "," + getScorerCallCount() + "," + getGenerationTime() + "," + getScoringTime() + "," +
+               getSelectionTime() + "," + getReproductionTime() + "," + getAllocatedBytes() + "]";
+    }
+
+    /**
+     * Counts values in buckets by their number of bits, so bucket b holds the values from 2^(b-1) up to 2^b - 1,
+     * which is fine enough to spot a phase getting twice as slow while only taking 65 counters.
+     */
+    public static class Histogram {
+
+        private final AtomicLongArray counts = new AtomicLongArray(65);
+
+        /**
+         * @param value the value to count, where negative values are counted as 0.
+         */
+        public void record(long value) {
+            counts.incrementAndGet(value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value));
+        }
+
+        /**
+         * @param bucket the number of bits of the values in the bucket, from 0 to 64.
+         * @return the number of values counted in the bucket.
+         */
+        public long getCount(int bucket) {return counts.get(bucket);}
+
+        public long getTotalCount() {
+            long total = 0;
+            for(int b = 0; b < counts.length(); b++)
+                total += counts.get(b);
+            return total;
+        }
+
+        /**
+         * @param quantile the fraction of values that should be at or below the result, between 0 and 1.
+         * @return the upper bound of the bucket holding the quantile, or 0 if nothing has been counted.
+         */
+        public long getQuantile(double quantile) {
+            if(quantile < 0 || quantile > 1)
+                throw new IllegalArgumentException("quantile was " + quantile + " but has to be between 0 and 1.");
+            long total = getTotalCount();
+            if(total == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total)), seen = 0;
+            for(int b = 0; b < counts.length(); b++) {
+                seen += counts.get(b);
+                if(seen >= rank)
+                    return b == 0 ? 0 : b == 64 ? Long.MAX_VALUE : (1L << b) - 1;
+            }
+            return Long.MAX_VALUE;
+        }
+
+        public void reset() {
+            for(int b = 0; b < counts.length(); b++)
+                counts.set(b, 0);
+        }
+
+    }
+
+    @Name("genalgo.Generation")
+    @Label("Generation")
+    @Category("Genetic Algorithm")
+    @Description("A generation made by the genetic algorithm")
+    static class GenerationEvent extends Event {
+
+        @Label("Generation Size")
+        int generationSize;
+
+        @Label("Scoring Time")
+        @Timespan
+        long scoringTime;
+
+        @Label("Selection Time")
+        @Timespan
+        long selectionTime;
+
+        @Label("Reproduction Time")
+        @Timespan
+        long reproductionTime;
+
+        @Label("Generation Time")
+        @Timespan
+        long generationTime;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+
+    }
+
+}
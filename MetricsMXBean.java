@@ -0,0 +1,18 @@
+/**
+ * What {@link Metrics} show through JMX, where all times are in nanoseconds.
+ */
+public interface MetricsMXBean {
+
+    long getGenerationCount();
+    long getScorerCallCount();
+    long getAllocatedBytes();
+    long getGenerationTime();
+    long getScoringTime();
+    long getSelectionTime();
+    long getReproductionTime();
+    long getGenerationTimeMedian();
+    long getGenerationTimeP99();
+
+    void reset();
+
+}
@@ -0,0 +1,255 @@
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides which genes of a child are mutated and how. The child is changed in place.
+ */
+public interface Mutator {
+
+    /**
+     * @param <Type> the object type of the genes.
+     * @param child the child to mutate.
+     * @param index the index of the child within its generation.
+     * @param generationSize the number of children within the generation.
+     * @param geneSupplier a function that supplies random genes.
+     * @param random the random generator to use.
+     */
+    <Type> void mutate(List<Type> child, int index, int generationSize, Supplier<Type> geneSupplier, RandomGenerator random);
+
+    /**
+     * @param child the child to mutate.
+     * @param index the index of the child within its generation.
+     * @param generationSize the number of children within the generation.
+     * @param random the random generator to use.
+     */
+    void mutate(BitGenome child, int index, int generationSize, RandomGenerator random);
+
+    /**
+     * Gets a child that was not made by mutation, such as one of the first generation, ready to be scored. Does nothing by default.
+     * A mutator that wraps another should prepare the child with it too.
+     * @param <Type> the object type of the genes.
+     * @param child the child to prepare.
+     */
+    default <Type> void prepare(List<Type> child) {}
+
+    /**
+     * Gets a child that was not made by mutation, such as one of the first generation, ready to be scored. Does nothing by default.
+     * A mutator that wraps another should prepare the child with it too.
+     * @param child the child to prepare.
+     */
+    default void prepare(BitGenome child) {}
+
+    /**
+     * Draws how many genes to skip until the next mutated gene, when each gene is mutated with the given probability.
+     * This makes the cost of mutating a child depend on the number of mutations instead of the number of genes.
+     * @param logInverseRate the natural logarithm of 1 minus the probability, which is negative.
+     * @param random the random generator to use.
+     * @return the number of genes to skip.
+     */
+    static int nextGap(double logInverseRate, RandomGenerator random) {
+        double gap = Math.floor(Math.log(1 - random.nextDouble()) / logInverseRate);
+        return gap < Integer.MAX_VALUE ? (int) gap : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Replaces each gene with a random gene with a fixed probability.
+     */
+    public static class Rate implements Mutator {
+
+        private final double rate;
+
+        /**
+         * @param rate the probability that each gene is replaced, between 0 and 1.
+         */
+        public Rate(double rate) {
+            if(rate < 0 || rate > 1)
+                throw new IllegalArgumentException("rate was " + rate + " but has to be between 0 and 1.");
+            this.rate = rate;
+        }
+
+        public <Type> void mutate(List<Type> child, int index, int generationSize, Supplier<Type> geneSupplier, RandomGenerator random) {
+            double rate = getRate(index, generationSize);
+            if(rate <= 0)
+                return;
+            if(rate >= 1) {
+                for(int i = 0; i < child.size(); i++)
+                    child.set(i, mutateGene(child.get(i), geneSupplier));
+                return;
+            }
+            double logInverseRate = Math.log1p(-rate);
+            for(long i = nextGap(logInverseRate, random); i < child.size(); i += 1L + nextGap(logInverseRate, random))
+                child.set((int) i, mutateGene(child.get((int) i), geneSupplier));
+        }
+
+        /**
+         * Gathers the mutated genes of each word into a mask and mutates them all at once with {@link #mutateWord}.
+         */
+        public void mutate(BitGenome child, int index, int generationSize, RandomGenerator random) {
+            double rate = getRate(index, generationSize);
+            if(rate <= 0)
+                return;
+            if(rate >= 1) {
+                for(int w = 0; w < child.getWordAmount(); w++)
+                    child.setWord(w, mutateWord(child.getWord(w), -1L, random));
+                return;
+            }
+            double logInverseRate = Math.log1p(-rate);
+            int w = -1;
+            long mask = 0;
+            for(long i = nextGap(logInverseRate, random); i < child.size(); i += 1L + nextGap(logInverseRate, random)) {
+                if(i >>> 6 != w) {
+                    if(mask != 0)
+                        child.setWord(w, mutateWord(child.getWord(w), mask, random));
+                    w = (int) (i >>> 6);
+                    mask = 0;
+                }
+                mask |= 1L << i;
+            }
+            if(mask != 0)
+                child.setWord(w, mutateWord(child.getWord(w), mask, random));
+        }
+
+        /**
+         * @return the probability that each gene of the child at the index is mutated.
+         */
+        protected double getRate(int index, int generationSize) {
+            return rate;
+        }
+
+        protected <Type> Type mutateGene(Type gene, Supplier<Type> geneSupplier) {
+            return geneSupplier.get();
+        }
+
+        /**
+         * @param word 64 genes of a child.
+         * @param mask the genes of the word to mutate.
+         * @param random the random generator to use.
+         * @return the word with the genes of the mask replaced by random genes.
+         */
+        protected long mutateWord(long word, long mask, RandomGenerator random) {
+            return (word & ~mask) | (random.nextLong() & mask);
+        }
+
+        public double getRate() {return rate;}
+
+        public String toString() {
+            return "Rate[" + rate + "]";
+        }
+
+    }
+
+    /**
+     * Replaces genes with a probability that grows with the index of the child, from 0 for the first child up to the rate for the last.
+     * With a rate of 0.5 this mutates as many genes on average as the algorithm has always done.
+     */
+    public static class Ramp extends Rate {
+
+        /**
+         * @param rate the probability that each gene of the last child is replaced, between 0 and 1.
+         */
+        public Ramp(double rate) {
+            super(rate);
+        }
+
+        protected double getRate(int index, int generationSize) {
+            return getRate() * index / generationSize;
+        }
+
+        public String toString() {
+            return "Ramp[" + getRate() + "]";
+        }
+
+    }
+
+    /**
+     * Flips each gene with a fixed probability. Only works on boolean genes.
+     */
+    public static class BitFlip extends Rate {
+
+        /**
+         * @param rate the probability that each gene is flipped, between 0 and 1.
+         */
+        public BitFlip(double rate) {
+            super(rate);
+        }
+
+        @SuppressWarnings("unchecked")
+        protected <Type> Type mutateGene(Type gene, Supplier<Type> geneSupplier) {
+            return (Type) Boolean.valueOf(!(Boolean) gene);
+        }
+
+        protected long mutateWord(long word, long mask, RandomGenerator random) {
+            return word ^ mask;
+        }
+
+        public String toString() {
+            return "BitFlip[" + getRate() + "]";
+        }
+
+    }
+
+    /**
+     * Mutates with another mutator and then repairs the child with a knapsack problem,
+     * so every child weighs no more than the maximum weight and has its leftover weight filled. Only works on boolean genes.
+     */
+    public static class Repairing implements Mutator {
+
+        private final Mutator mutator;
+        private final KnapsackProblem problem;
+
+        /**
+         * @param mutator the mutator to mutate the child with before it is repaired.
+         * @param problem the problem to repair the child with.
+         */
+        public Repairing(Mutator mutator, KnapsackProblem problem) {
+            this.mutator = mutator;
+            this.problem = problem;
+        }
+
+        public <Type> void mutate(List<Type> child, int index, int generationSize, Supplier<Type> geneSupplier, RandomGenerator random) {
+            mutator.mutate(child, index, generationSize, geneSupplier, random);
+            repair(child);
+        }
+
+        public void mutate(BitGenome child, int index, int generationSize, RandomGenerator random) {
+            mutator.mutate(child, index, generationSize, random);
+            problem.repair(child);
+        }
+
+        /**
+         * Prepares the child with the wrapped mutator and then repairs it.
+         * @param <Type> the object type of the genes, which has to be Boolean.
+         * @param child the child to prepare.
+         */
+        public <Type> void prepare(List<Type> child) {
+            mutator.prepare(child);
+            repair(child);
+        }
+
+        /**
+         * Prepares the child with the wrapped mutator and then repairs it.
+         * @param child the child to prepare.
+         */
+        public void prepare(BitGenome child) {
+            mutator.prepare(child);
+            problem.repair(child);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <Type> void repair(List<Type> child) {
+            if(!child.isEmpty() && !(child.get(0) instanceof Boolean))
+                throw new IllegalArgumentException("Only children of boolean genes can be repaired, but a gene was " + child.get(0) + ".");
+            problem.repair((List<Boolean>) child);
+        }
+
+        public Mutator getMutator() {return mutator;}
+        public KnapsackProblem getProblem() {return problem;}
+
+        public String toString() {
+            return "Repairing[" + mutator + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * A seeded source of random streams for a run of the algorithm.
+ * Every generation gets its own seed, and every child within a generation gets its own stream made from that seed,
+ * so a run gives the same result no matter how many threads work on it or in which order.
+ * The state is only the seed and the number of generation seeds handed out, so it can be saved and restored.
+ * <p>
+ * While the algorithm works on a child, the stream of that child is also available through {@link #current()},
+ * which is what gene suppliers should use to be reproducible, for example {@code () -> RandomSource.current().nextBoolean()}.
+ */
+public class RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final ThreadLocal<RandomGenerator> current = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private final long seed;
+    private final AtomicLong counter;
+
+    /**
+     * Makes a source with a random seed.
+     */
+    public RandomSource() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @param seed the seed of the run.
+     */
+    public RandomSource(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * @param seed the seed of the run.
+     * @param counter the number of generation seeds that have already been handed out.
+     */
+    public RandomSource(long seed, long counter) {
+        this.seed = seed;
+        this.counter = new AtomicLong(counter);
+    }
+
+    public long getSeed() {return seed;}
+    public long getCounter() {return counter.get();}
+
+    /**
+     * @return the seed of the next generation.
+     */
+    public long nextSeed() {
+        return mix(seed + GOLDEN_GAMMA * counter.getAndIncrement());
+    }
+
+    /**
+     * @return a new source whose streams do not overlap with this one, for example for another population.
+     */
+    public RandomSource split() {
+        return new RandomSource(nextSeed());
+    }
+
+    /**
+     * @param seed the seed of a generation.
+     * @param index the index of the stream within the generation.
+     * @return the stream with that index, which is always the same for the same seed and index.
+     */
+    public static SplittableRandom forIndex(long seed, int index) {
+        return new SplittableRandom(mix(seed + GOLDEN_GAMMA * (index + 1L)));
+    }
+
+    /**
+     * @return the stream of the child the algorithm is working on in this thread,
+     * or an unseeded stream of this thread if it is not working on a child.
+     */
+    public static RandomGenerator current() {
+        return current.get();
+    }
+
+    /**
+     * @param random the stream to use in this thread.
+     * @return the stream that was used before, which should be set again afterwards.
+     */
+    static RandomGenerator setCurrent(RandomGenerator random) {
+        RandomGenerator previous = current.get();
+        current.set(random);
+        return previous;
+    }
+
+    /**
+     * Stafford's variant 13 of the 64-bit finalizer from MurmurHash3, which SplittableRandom also uses.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public String toString() {
+        return "[" + seed + "," + getCounter() + "]";
+    }
+
+}
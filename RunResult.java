@@ -0,0 +1,63 @@
+import java.util.List;
+
+/**
+ * The outcome of a run of the algorithm, with the last generation, the best child found in any generation with its score,
+ * the statistics of every generation and why the run stopped, so nothing has to be scored again afterwards.
+ * @param <Child> the type of the children.
+ */
+public class RunResult<Child> {
+
+    private final List<Child> generation;
+    private final int[] scores;
+    private final Child bestChild;
+    private final int bestScore;
+    private final RunStatistics statistics;
+    private final Termination.StopReason stopReason;
+    private final int generationAmount;
+    private final long time;
+
+    /**
+     * @param generation the last generation of the run.
+     * @param scores the score of each child of the last generation.
+     * @param bestChild a copy of the best child found in any generation of the run.
+     * @param bestScore the score of the best child.
+     * @param statistics the statistics of every generation of the run.
+     * @param stopReason why the run stopped.
+     * @param generationAmount the number of generations the run made.
+     * @param time the time the run took, in nanoseconds.
+     */
+    public RunResult(List<Child> generation, int[] scores, Child bestChild, int bestScore, RunStatistics statistics,
+                     Termination.StopReason stopReason, int generationAmount, long time) {
+        this.generation = generation;
+        this.scores = scores;
+        this.bestChild = bestChild;
+        this.bestScore = bestScore;
+        this.statistics = statistics;
+        this.stopReason = stopReason;
+        this.generationAmount = generationAmount;
+        this.time = time;
+    }
+
+    public List<Child> getGeneration() {return generation;}
+    public Child getBestChild() {return bestChild;}
+    public int getBestScore() {return bestScore;}
+    public RunStatistics getStatistics() {return statistics;}
+    public Termination.StopReason getStopReason() {return stopReason;}
+    public int getGenerationAmount() {return generationAmount;}
+
+    /**
+     * @return the time the run took, in nanoseconds.
+     */
+    public long getTime() {return time;}
+
+    /**
+     * @param index the index of a child of the last generation.
+     * @return the score of that child.
+     */
+    public int getScore(int index) {return scores[index];}
+
+    public String toString() {
+        return "[" + stopReason + "," + generationAmount + "," + bestScore + "," + time + "]";
+    }
+
+}
@@ -0,0 +1,84 @@
+import java.util.Arrays;
+
+/**
+ * The best, mean and worst score, the diversity and the time of every generation of a run,
+ * kept in primitive arrays that grow as generations are added, so keeping them costs next to nothing.
+ */
+public class RunStatistics {
+
+    private int generationAmount = 0;
+    private int[] bestScores = new int[16],
+                  worstScores = new int[16];
+    private double[] meanScores = new double[16],
+                     diversities = new double[16];
+    private long[] times = new long[16];
+
+    /**
+     * @param scores the score of each child of the generation.
+     * @param diversity the diversity of the generation, or NaN if it was not measured.
+     * @param time the time from the start of the run until the generation was scored, in nanoseconds.
+     */
+    void addGeneration(int[] scores, double diversity, long time) {
+        if(generationAmount == bestScores.length) {
+            int capacity = generationAmount * 2;
+            bestScores = Arrays.copyOf(bestScores, capacity);
+            worstScores = Arrays.copyOf(worstScores, capacity);
+            meanScores = Arrays.copyOf(meanScores, capacity);
+            diversities = Arrays.copyOf(diversities, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        int best = Integer.MIN_VALUE, worst = Integer.MAX_VALUE;
+        long sum = 0;
+        for(int score : scores) {
+            best = Math.max(best, score);
+            worst = Math.min(worst, score);
+            sum += score;
+        }
+        bestScores[generationAmount] = best;
+        worstScores[generationAmount] = worst;
+        meanScores[generationAmount] = (double) sum / scores.length;
+        diversities[generationAmount] = diversity;
+        times[generationAmount] = time;
+        generationAmount++;
+    }
+
+    /**
+     * @return the number of generations that have been added.
+     */
+    public int getGenerationAmount() {return generationAmount;}
+
+    public int getBestScore(int generation) {return bestScores[check(generation)];}
+    public int getWorstScore(int generation) {return worstScores[check(generation)];}
+    public double getMeanScore(int generation) {return meanScores[check(generation)];}
+    /**
+     * @param generation the index of a generation.
+     * @return the diversity of the generation, or NaN if it was not measured, as set by {@link GeneticAlgorithm.Settings#setDiversityInterval}.
+     */
+    public double getDiversity(int generation) {return diversities[check(generation)];}
+
+    /**
+     * @param generation the index of a generation.
+     * @return the time from the start of the run until the generation was scored, in nanoseconds.
+     */
+    public long getTime(int generation) {return times[check(generation)];}
+
+    public int[] getBestScores() {return Arrays.copyOf(bestScores, generationAmount);}
+    public int[] getWorstScores() {return Arrays.copyOf(worstScores, generationAmount);}
+    public double[] getMeanScores() {return Arrays.copyOf(meanScores, generationAmount);}
+    public double[] getDiversities() {return Arrays.copyOf(diversities, generationAmount);}
+    public long[] getTimes() {return Arrays.copyOf(times, generationAmount);}
+
+    private int check(int generation) {
+        if(generation < 0 || generation >= generationAmount)
+            throw new IndexOutOfBoundsException("generation was " + generation + " but there are only " + generationAmount + " generations.");
+        return generation;
+    }
+
+    public String toString() {
+        if(generationAmount == 0)
+            return "[]";
+        int last = generationAmount - 1;
+        return "[" + generationAmount + "," + bestScores[last] + "," + meanScores[last] + "," + worstScores[last] + "," + diversities[last] + "," + times[last] + "]";
+    }
+
+}
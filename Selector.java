@@ -0,0 +1,230 @@
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Decides which children of a generation become the parents of the next generation.
+ * Selectors only look at the scores, so they work the same for every type of child.
+ */
+public interface Selector {
+
+    /**
+     * @param scores the score of each child.
+     * @param amount the number of parents to select.
+     * @param random the random generator to use.
+     * @return the indices of the selected children, which may contain the same index more than once.
+     */
+    int[] select(int[] scores, int amount, RandomGenerator random);
+
+    /**
+     * The elites are the first of the selected parents, and making a generation from a generation copies them into
+     * the first children unchanged, so they are neither crossed over nor mutated. None by default.
+     * @return the number of best children that survive into the next generation as they are.
+     */
+    default int getEliteAmount() {return 0;}
+
+    /**
+     * Selects the children with the highest scores, which is what the algorithm has always done.
+     */
+    public static class Truncation implements Selector {
+
+        public int[] select(int[] scores, int amount, RandomGenerator random) {
+            return GeneticAlgorithm.getBestIndices(scores, amount);
+        }
+
+        public String toString() {
+            return "Truncation";
+        }
+
+    }
+
+    /**
+     * Selects each parent as the best of a few randomly picked children, so it only compares the scores of the picked ones
+     * and takes the same time for every parent however large the generation is. The whole generation is still scored before selecting,
+     * since the algorithm needs every score for its statistics and termination anyway.
+     */
+    public static class Tournament implements Selector {
+
+        private final int size;
+
+        /**
+         * @param size the number of children in each tournament, where a higher number gives a stronger selection.
+         */
+        public Tournament(int size) {
+            if(size < 1)
+                throw new IllegalArgumentException("size was " + size + " but cannot be less than 1.");
+            this.size = size;
+        }
+
+        public int[] select(int[] scores, int amount, RandomGenerator random) {
+            int[] selected = new int[amount];
+            for(int i = 0; i < amount; i++) {
+                int best = random.nextInt(scores.length);
+                for(int j = 1; j < size; j++) {
+                    int contender = random.nextInt(scores.length);
+                    if(scores[contender] > scores[best])
+                        best = contender;
+                }
+                selected[i] = best;
+            }
+            return selected;
+        }
+
+        public int getSize() {return size;}
+
+        public String toString() {
+            return "Tournament[" + size + "]";
+        }
+
+    }
+
+    /**
+     * Selects each parent with a probability proportional to how much its score is above the lowest score of the generation.
+     * The probabilities are put into an alias table, so each parent is sampled in constant time.
+     */
+    public static class Roulette implements Selector {
+
+        public int[] select(int[] scores, int amount, RandomGenerator random) {
+            int min = IntStream.of(scores).min().getAsInt();
+            double[] weights = new double[scores.length];
+            for(int i = 0; i < scores.length; i++)
+                weights[i] = (double) scores[i] - min;
+            return new AliasTable(weights).sample(amount, random);
+        }
+
+        public String toString() {
+            return "Roulette";
+        }
+
+    }
+
+    /**
+     * Selects each parent with a probability that depends on its rank instead of its score,
+     * so a few children with outstanding scores cannot take over the whole generation.
+     */
+    public static class Rank implements Selector {
+
+        private final double pressure;
+
+        /**
+         * @param pressure how much more likely the best child is picked than the average child,
+         * from 1 where every child is equally likely to 2 where the worst child is never picked.
+         */
+        public Rank(double pressure) {
+            if(pressure < 1 || pressure > 2)
+                throw new IllegalArgumentException("pressure was " + pressure + " but has to be between 1 and 2.");
+            this.pressure = pressure;
+        }
+
+        public int[] select(int[] scores, int amount, RandomGenerator random) {
+            int[] ranked = GeneticAlgorithm.getBestIndices(scores, scores.length);
+            double[] weights = new double[scores.length];
+            for(int rank = 0; rank < ranked.length; rank++) {
+                double position = ranked.length == 1 ? 1 : (double) (ranked.length - 1 - rank) / (ranked.length - 1);
+                weights[ranked[rank]] = 2 - pressure + 2 * (pressure - 1) * position;
+            }
+            return new AliasTable(weights).sample(amount, random);
+        }
+
+        public double getPressure() {return pressure;}
+
+        public String toString() {
+            return "Rank[" + pressure + "]";
+        }
+
+    }
+
+    /**
+     * Always selects the best few children as the first parents, and lets another selector pick the rest of the parents.
+     * The algorithm copies the best few into the next generation unchanged, so the best child of a generation is never lost.
+     */
+    public static class Elitist implements Selector {
+
+        private final int eliteAmount;
+        private final Selector selector;
+
+        /**
+         * @param eliteAmount the number of best children that are always selected and kept unchanged.
+         * @param selector the selector that picks the rest of the parents.
+         */
+        public Elitist(int eliteAmount, Selector selector) {
+            if(eliteAmount < 0)
+                throw new IllegalArgumentException("eliteAmount was " + eliteAmount + " but cannot be less than 0.");
+            this.eliteAmount = eliteAmount;
+            this.selector = selector;
+        }
+
+        public int[] select(int[] scores, int amount, RandomGenerator random) {
+            int elites = Math.min(eliteAmount, amount);
+            if(elites == 0)
+                return selector.select(scores, amount, random);
+            int[] selected = new int[amount];
+            System.arraycopy(GeneticAlgorithm.getBestIndices(scores, elites), 0, selected, 0, elites);
+            if(amount > elites)
+                System.arraycopy(selector.select(scores, amount - elites, random), 0, selected, elites, amount - elites);
+            return selected;
+        }
+
+        public int getEliteAmount() {return eliteAmount;}
+        public Selector getSelector() {return selector;}
+
+        public String toString() {
+            return "Elitist[" + eliteAmount + "," + selector + "]";
+        }
+
+    }
+
+    /**
+     * Walker's alias method, which after a linear setup samples from a discrete distribution with one random number and one comparison.
+     */
+    public static class AliasTable {
+
+        private final double[] probabilities;
+        private final int[] aliases;
+
+        /**
+         * @param weights the relative weight of each index, which cannot be negative. If they are all 0, every index is equally likely.
+         */
+        public AliasTable(double[] weights) {
+            int n = weights.length;
+            probabilities = new double[n];
+            aliases = new int[n];
+            double total = 0;
+            for(double weight : weights)
+                total += weight;
+            int[] small = new int[n], large = new int[n];
+            int smallSize = 0, largeSize = 0;
+            for(int i = 0; i < n; i++) {
+                probabilities[i] = total > 0 ? weights[i] * n / total : 1;
+                if(probabilities[i] < 1)
+                    small[smallSize++] = i;
+                else
+                    large[largeSize++] = i;
+            }
+            while(smallSize > 0 && largeSize > 0) {
+                int less = small[--smallSize], more = large[--largeSize];
+                aliases[less] = more;
+                probabilities[more] += probabilities[less] - 1;
+                if(probabilities[more] < 1)
+                    small[smallSize++] = more;
+                else
+                    large[largeSize++] = more;
+            }
+            while(largeSize > 0) probabilities[large[--largeSize]] = 1;
+            while(smallSize > 0) probabilities[small[--smallSize]] = 1; //Only left over because of rounding errors.
+        }
+
+        public int sample(RandomGenerator random) {
+            int i = random.nextInt(probabilities.length);
+            return random.nextDouble() < probabilities[i] ? i : aliases[i];
+        }
+
+        public int[] sample(int amount, RandomGenerator random) {
+            int[] samples = new int[amount];
+            for(int i = 0; i < amount; i++)
+                samples[i] = sample(random);
+            return samples;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+import java.time.Duration;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides when a run of the algorithm should stop before it has made all its generations,
+ * because going on would most likely not find a better child.
+ * Every criterion is off until it is set, so a new termination only stops at the number of generations.
+ */
+public class Termination {
+
+    /**
+     * Why a run stopped.
+     */
+    public enum StopReason {
+        /** The run made all the generations it was asked to. */
+        GENERATION_AMOUNT,
+        /** The best score reached the target score. */
+        TARGET_SCORE,
+        /** The best score did not improve for the stagnation window. */
+        STAGNATION,
+        /** The children of the last generation were too similar to the best child. */
+        LOW_DIVERSITY,
+        /** The run used up its time budget. */
+        TIME_BUDGET,
+        /** A {@link GeneticAlgorithm.GenerationListener listener} of the run asked it to stop. */
+        STOPPED
+    }
+
+    private int stagnationWindow = 0;
+    private boolean hasTargetScore = false;
+    private int targetScore;
+    private long timeBudget = 0;
+    private double diversityThreshold = 0;
+
+    public int getStagnationWindow() {return stagnationWindow;}
+
+    /**
+     * @param stagnationWindow the number of generations the best score may go without improving, or 0 to never stop for that.
+     */
+    public void setStagnationWindow(int stagnationWindow) {
+        if(stagnationWindow < 0)
+            throw new IllegalArgumentException("stagnationWindow was " + stagnationWindow + " but cannot be less than 0.");
+        this.stagnationWindow = stagnationWindow;
+    }
+
+    public boolean hasTargetScore() {return hasTargetScore;}
+    public int getTargetScore() {return targetScore;}
+
+    /**
+     * @param targetScore a score that is known to be good enough, such as the optimum, which stops the run as soon as a child reaches it.
+     */
+    public void setTargetScore(int targetScore) {
+        this.targetScore = targetScore;
+        this.hasTargetScore = true;
+    }
+
+    public void clearTargetScore() {this.hasTargetScore = false;}
+
+    /**
+     * @return the time budget in nanoseconds, or 0 if there is none.
+     */
+    public long getTimeBudget() {return timeBudget;}
+
+    /**
+     * The budget is checked between generations, so a run can go over it by up to one generation.
+     * @param timeBudget the longest time the run may take, or null or zero to never stop for that.
+     */
+    public void setTimeBudget(Duration timeBudget) {
+        if(timeBudget != null && timeBudget.isNegative())
+            throw new IllegalArgumentException("timeBudget was " + timeBudget + " but cannot be negative.");
+        this.timeBudget = timeBudget == null ? 0 : timeBudget.toNanos();
+    }
+
+    public double getDiversityThreshold() {return diversityThreshold;}
+
+    /**
+     * The diversity is the mean fraction of genes that a sample of the children differ from the best child in,
+     * so 0 means every sampled child is the same as the best one.
+     * @param diversityThreshold the diversity at or below which the run stops, between 0 and 1, where 0 never stops the run.
+     */
+    public void setDiversityThreshold(double diversityThreshold) {
+        if(diversityThreshold < 0 || diversityThreshold > 1)
+            throw new IllegalArgumentException("diversityThreshold was " + diversityThreshold + " but has to be between 0 and 1.");
+        this.diversityThreshold = diversityThreshold;
+    }
+
+    /**
+     * @param generationNumber the number of generations made so far.
+     * @param generationAmount the number of generations the run was asked to make.
+     * @param bestScore the best score found so far.
+     * @param bestGenerationNumber the number of generations that had been made when the best score was found.
+     * @param elapsedTime the time the run has taken so far, in nanoseconds.
+     * @param diversity a function that gives the diversity of the last generation, which is only called if there is a diversity threshold.
+     * @return why the run should stop now, or null if it should go on.
+     */
+    public StopReason check(int generationNumber, int generationAmount, int bestScore, int bestGenerationNumber, long elapsedTime, DoubleSupplier diversity) {
+        if(hasTargetScore && bestScore >= targetScore)
+            return StopReason.TARGET_SCORE;
+        if(generationNumber >= generationAmount)
+            return StopReason.GENERATION_AMOUNT;
+        if(stagnationWindow > 0 && generationNumber - bestGenerationNumber >= stagnationWindow)
+            return StopReason.STAGNATION;
+        if(diversityThreshold > 0 && diversity.getAsDouble() <= diversityThreshold)
+            return StopReason.LOW_DIVERSITY;
+        if(timeBudget > 0 && elapsedTime >= timeBudget)
+            return StopReason.TIME_BUDGET;
+        return null;
+    }
+
+    public String toString() {
+        return "[" + stagnationWindow + "," + (hasTargetScore ? targetScore : "-") + "," + timeBudget + "," + diversityThreshold + "]";
+    }
+
+}
@@ -0,0 +1,181 @@
+package genalgo;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the hot paths of the algorithm on a random catalog of items, for both boxed and packed genes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GeneticAlgorithmBenchmark {
+
+    @Param({"100", "10000"})
+    public int generationSize;
+
+    @Param({"2", "20"})
+    public int parentAmount;
+
+    @Param({"24", "1000"})
+    public int itemCount;
+
+    @Param({"10"})
+    public int generationAmount;
+
+    private final Supplier<Boolean> geneSupplier = () -> RandomSource.current().nextBoolean();
+
+    private GeneticAlgorithm.Settings settings, inPlaceSettings;
+    private List<List<Boolean>> generation, parents;
+    private List<BitGenome> bitGeneration, bitParents;
+    private List<Boolean> child;
+    private BitGenome bitChild, deltaChild;
+    private KnapsackProblem problem;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fillBackpack(itemCount, 42);
+        settings = new GeneticAlgorithm.Settings();
+        settings.setSeed(42);
+        inPlaceSettings = new GeneticAlgorithm.Settings(settings);
+        inPlaceSettings.setInPlace(true);
+        generation = GeneticAlgorithm.makeGenerationFromSupplier(generationSize, itemCount, geneSupplier, settings);
+        parents = generation.subList(0, parentAmount);
+        child = generation.get(0);
+        bitGeneration = BitGeneticAlgorithm.makeGenerationFromRandom(generationSize, itemCount, settings);
+        bitParents = bitGeneration.subList(0, parentAmount);
+        bitChild = bitGeneration.get(0);
+        problem = Backpack.getProblem();
+        deltaChild = new BitGenome(bitChild);
+        problem.applyAsInt(deltaChild);
+    }
+
+    /**
+     * Replaces the items of the backpack with random items whose total weight is about twice the maximum weight.
+     */
+    static void fillBackpack(int itemCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        while(Backpack.getItemSizeFull() > 0)
+            Backpack.removeItem(Backpack.getItemSizeFull() - 1);
+        for(int i = 0; i < itemCount; i++)
+            Backpack.addItem(new Backpack.Item("Item" + i, 1 + random.nextInt(1000), 1 + random.nextInt(200)));
+        Backpack.setMaxWeight(itemCount * 250);
+    }
+
+    @Benchmark
+    public List<Boolean> makeChildFromParents() {
+        return GeneticAlgorithm.makeChildFromParents(parents, settings);
+    }
+
+    @Benchmark
+    public BitGenome makeChildFromParentsBits() {
+        return BitGeneticAlgorithm.makeChildFromParents(bitParents, settings);
+    }
+
+    @Benchmark
+    public List<Boolean> makeMutatedChild() {
+        return GeneticAlgorithm.makeMutatedChild(child, itemCount / 10, geneSupplier);
+    }
+
+    @Benchmark
+    public List<Boolean> makeMutatedChildRate() {
+        return GeneticAlgorithm.makeMutatedChild(child, generationSize - 1, generationSize, geneSupplier, settings);
+    }
+
+    @Benchmark
+    public BitGenome makeMutatedChildBits() {
+        return BitGeneticAlgorithm.makeMutatedChild(bitChild, itemCount / 10);
+    }
+
+    @Benchmark
+    public List<List<Boolean>> getBestChildren() {
+        return GeneticAlgorithm.getBestChildren(generation, parentAmount, Backpack::getPriceIfAllowed, settings);
+    }
+
+    @Benchmark
+    public List<BitGenome> getBestChildrenBits() {
+        return BitGeneticAlgorithm.getBestChildren(bitGeneration, parentAmount, Backpack::getPriceIfAllowed, settings);
+    }
+
+    @Benchmark
+    public int getPriceIfAllowed() {
+        return Backpack.getPriceIfAllowed(child);
+    }
+
+    @Benchmark
+    public int getPriceIfAllowedBits() {
+        return Backpack.getPriceIfAllowed(bitChild);
+    }
+
+    @Benchmark
+    public int scoreMutatedChildBits() {
+        return problem.getPriceIfAllowed(BitGeneticAlgorithm.makeMutatedChild(bitChild, 1));
+    }
+
+    @Benchmark
+    public int scoreMutatedChildBitsDelta() {
+        return problem.applyAsInt(BitGeneticAlgorithm.makeMutatedChild(deltaChild, 1));
+    }
+
+    @Benchmark
+    public int[] scoreGeneration() {
+        return Backpack.scoreGeneration(generation);
+    }
+
+    @Benchmark
+    public int[] scoreGenerationBits() {
+        return Backpack.scoreBitGeneration(bitGeneration);
+    }
+
+    @Benchmark
+    public int[] scoreGenerationBitsScalar() {
+        int[] scores = new int[bitGeneration.size()];
+        for(int i = 0; i < scores.length; i++)
+            scores[i] = problem.getPriceIfAllowed(bitGeneration.get(i));
+        return scores;
+    }
+
+    @Benchmark
+    public List<List<Boolean>> makeGenerations() {
+        return GeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, itemCount, geneSupplier, Backpack::getPriceIfAllowed, settings);
+    }
+
+    @Benchmark
+    public List<BitGenome> makeGenerationsBits() {
+        return BitGeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, itemCount, Backpack::getPriceIfAllowed, settings);
+    }
+
+    @Benchmark
+    public List<List<Boolean>> makeGenerationsInPlace() {
+        return GeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, itemCount, geneSupplier, Backpack::getPriceIfAllowed, inPlaceSettings);
+    }
+
+    @Benchmark
+    public List<BitGenome> makeGenerationsBitsInPlace() {
+        return BitGeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, itemCount, Backpack::getPriceIfAllowed, inPlaceSettings);
+    }
+
+    @Benchmark
+    public List<BitGenome> makeGenerationsBitsDelta() {
+        return BitGeneticAlgorithm.makeGenerations(generationAmount, generationSize, parentAmount, itemCount, Backpack.getProblem(), settings);
+    }
+
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores packings with the vector API, adding up the weights and prices of as many items per instruction as the CPU has lanes.
+ * The genes of each lane are spread over the lanes by shifting the bit of every lane up to the sign bit and back down,
+ * which gives a lane of all ones for a chosen item and of zeroes otherwise, so the weights and prices are added without branches or masks.
+ * Every lane of every word is added even when no item in it is chosen, since skipping them keeps the JIT from compiling the vectors into instructions.
+ * <p>
+ * This lives outside the other sources, since it can only be compiled and run with {@code --add-modules jdk.incubator.vector}.
+ * {@link KnapsackProblem} loads it when the module is there and the class has been compiled, and scores without it otherwise.
+ */
+final class VectorBlockScorer implements BlockScorer {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int LANE_MASK = (int) ((1L << LANES) - 1);
+    // Shifts the bit of each lane up to the sign bit.
+    private static final IntVector SHIFTS = IntVector.zero(SPECIES).addIndex(-1).add(31);
+
+    private final int[] weights;
+    private final int[] prices;
+    private final int itemSize;
+    private final int maxWeight;
+
+    /**
+     * The weights and prices are copied into arrays padded with zeroes up to a whole number of words,
+     * so every word of a packing can be read without checking the bounds of the arrays.
+     */
+    VectorBlockScorer(int[] weights, int[] prices, int maxWeight) {
+        if(LANES > 32 || 64 % LANES != 0)
+            throw new UnsupportedOperationException("Vectors of " + LANES + " ints are not supported.");
+        int padded = BitGenome.getWordAmount(weights.length) << 6;
+        this.weights = Arrays.copyOf(weights, padded);
+        this.prices = Arrays.copyOf(prices, padded);
+        this.itemSize = weights.length;
+        this.maxWeight = maxWeight;
+    }
+
+    private static IntVector select(int bits) {
+        return IntVector.broadcast(SPECIES, bits).lanewise(VectorOperators.LSHL, SHIFTS).lanewise(VectorOperators.ASHR, 31);
+    }
+
+    public int getPriceIfAllowed(BitGenome genome) {
+        int[] weight = new int[1], price = new int[1];
+        sumPair(check(genome), genome, 0, 0, weight, price);
+        return weight[0] > maxWeight ? 0 : price[0];
+    }
+
+    /**
+     * Sums the block with {@link #sumBlock} and scores the packings from their sums.
+     */
+    public void scoreBlock(List<BitGenome> generation, int from, int to, int[] scores) {
+        int[] weightSums = new int[to], priceSums = new int[to];
+        sumBlock(generation, from, to, weightSums, priceSums);
+        for(int i = from; i < to; i++)
+            scores[i] = weightSums[i] > maxWeight ? 0 : priceSums[i];
+    }
+
+    /**
+     * Sums two packings at a time, so the weights and prices of every lane of items are loaded once for both.
+     * More at a time needs more vectors than the CPU has registers.
+     */
+    public void sumBlock(List<BitGenome> generation, int from, int to, int[] weightSums, int[] priceSums) {
+        for(int i = from; i < to; i += 2) {
+            int j = Math.min(i + 1, to - 1); //The last packing of an odd block is paired with itself.
+            BitGenome a = check(generation.get(i)), b = check(generation.get(j));
+            if(b.getWordAmount() == a.getWordAmount())
+                sumPair(a, b, i, j, weightSums, priceSums);
+            else {
+                sumPair(a, a, i, i, weightSums, priceSums);
+                sumPair(b, b, j, j, weightSums, priceSums);
+            }
+        }
+    }
+
+    /**
+     * Sums two packings of the same number of words into the given indices of the arrays.
+     */
+    private void sumPair(BitGenome a, BitGenome b, int indexA, int indexB, int[] weightSums, int[] priceSums) {
+        IntVector weightA = IntVector.zero(SPECIES), priceA = weightA, weightB = weightA, priceB = weightA;
+        for(int w = 0; w < a.getWordAmount(); w++) {
+            long wordA = a.getWord(w), wordB = b.getWord(w);
+            for(int offset = 0; offset < 64; offset += LANES) {
+                int index = (w << 6) + offset;
+                IntVector weight = IntVector.fromArray(SPECIES, weights, index), price = IntVector.fromArray(SPECIES, prices, index);
+                IntVector selectA = select((int) (wordA >>> offset) & LANE_MASK), selectB = select((int) (wordB >>> offset) & LANE_MASK);
+                weightA = weightA.add(weight.and(selectA));
+                priceA = priceA.add(price.and(selectA));
+                weightB = weightB.add(weight.and(selectB));
+                priceB = priceB.add(price.and(selectB));
+            }
+        }
+        weightSums[indexA] = weightA.reduceLanes(VectorOperators.ADD);
+        priceSums[indexA] = priceA.reduceLanes(VectorOperators.ADD);
+        weightSums[indexB] = weightB.reduceLanes(VectorOperators.ADD);
+        priceSums[indexB] = priceB.reduceLanes(VectorOperators.ADD);
+    }
+
+    private BitGenome check(BitGenome genome) {
+        if(genome.size() > itemSize)
+            throw new IllegalArgumentException("Genome has " + genome.size() + " genes but there are only " + itemSize + " items.");
+        return genome;
+    }
+
+}